@@ -0,0 +1,226 @@
+package app;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import puzzles.sliding.Heuristic;
+import puzzles.sliding.Heuristics;
+import puzzles.sliding.IdaStarSolver;
+import puzzles.sliding.PatternDatabases;
+import puzzles.sliding.SlideAction;
+import puzzles.sliding.SlidingRules;
+import puzzles.sliding.SlidingSolver;
+import puzzles.sliding.SlidingSolvers;
+import puzzles.sliding.SlidingState;
+import puzzles.sliding.SolveResult;
+import puzzles.sliding.SolverUtils;
+import puzzles.sliding.StandardGoal;
+
+/**
+ * Headless batch solver for sliding puzzles.
+ *
+ *   java app.SlidingBatch in.txt out.csv [--threads N] [--node-limit N]
+ *                         [--heuristic md|wd|pdb] [--compare md,wd,pdb]
+ *
+ * Input: one puzzle per line, "rows cols t1 t2 ... tN" row-major with 0 = blank;
+ * blank lines and lines starting with '#' are skipped.
+ * Output: one CSV row per puzzle, in input order, written as soon as every
+ * earlier puzzle is done. Puzzles are solved on a work-stealing pool by the
+ * solver SlidingSolvers picks for their shape, and every solution is replayed
+ * through SlidingRules/StandardGoal before it is reported.
+ * --heuristic sets the heuristic of the IDA* solvers; --compare additionally
+ * runs IDA* under each listed heuristic on every board of up to 16 cells (or
+ * with pattern databases) and prints nodes and time per heuristic at the end.
+ */
+public final class SlidingBatch {
+    private final int threads;
+    private final long nodeLimit;
+    private final Heuristic.Factory heuristic;
+    private final ThreadLocal<Map<String, SlidingSolver>> solvers;   // per thread, per shape
+
+    // --compare: one IDA* per heuristic per thread, totals per heuristic
+    private final String[] compare;
+    private final ThreadLocal<IdaStarSolver[]> compareSolvers;
+    private final LongAdder[] cmpNodes, cmpNanos, cmpSolved;
+    private final LongAdder cmpMismatch = new LongAdder();
+
+    private SlidingBatch(int threads, long nodeLimit, Heuristic.Factory heuristic, String[] compare) {
+        this.threads = threads;
+        this.nodeLimit = nodeLimit;
+        this.heuristic = heuristic;
+        this.solvers = ThreadLocal.withInitial(() -> new HashMap<String, SlidingSolver>());
+        this.compare = compare;
+        this.compareSolvers = ThreadLocal.withInitial(() -> {
+            IdaStarSolver[] a = new IdaStarSolver[compare.length];
+            for (int i = 0; i < a.length; i++) a[i] = new IdaStarSolver(Heuristics.byName(compare[i]), nodeLimit);
+            return a;
+        });
+        cmpNodes = adders(compare.length); cmpNanos = adders(compare.length); cmpSolved = adders(compare.length);
+    }
+
+    private static final String USAGE = "usage: java app.SlidingBatch in.txt out.csv [--threads N] [--node-limit N]"
+            + " [--heuristic md|wd|pdb] [--compare md,wd,pdb]";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println(USAGE);
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        long nodeLimit = Long.MAX_VALUE;
+        Heuristic.Factory heuristic = PatternDatabases.factory();
+        String[] compare = new String[0];
+        for (int i = 2; i < args.length; i += 2) {
+            String opt = args[i], val = i + 1 < args.length ? args[i + 1] : null;
+            try {
+                if (val == null) throw new IllegalArgumentException("missing value for " + opt);
+                else if (opt.equals("--threads")) threads = Math.max(1, Integer.parseInt(val));
+                else if (opt.equals("--node-limit")) nodeLimit = Long.parseLong(val);
+                else if (opt.equals("--heuristic")) heuristic = Heuristics.byName(val);
+                else if (opt.equals("--compare")) {
+                    compare = val.split(",");
+                    for (String h : compare) Heuristics.byName(h);   // reject unknown names before starting
+                }
+                else throw new IllegalArgumentException("unknown option " + opt);
+            } catch (IllegalArgumentException e) {
+                System.out.println(e instanceof NumberFormatException ? "not a number for " + opt + ": " + val : e.getMessage());
+                System.out.println(USAGE);
+                return;
+            }
+        }
+        new SlidingBatch(threads, nodeLimit, heuristic, compare).run(args[0], args[1]);
+    }
+
+    private void run(String in, String out) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int window = threads * 4;                     // bounded look-ahead keeps memory flat
+        ArrayDeque<CompletableFuture<String>> pending = new ArrayDeque<CompletableFuture<String>>();
+        long t0 = System.nanoTime();
+        int count = 0, failed = 0;
+        try (BufferedReader r = Files.newBufferedReader(Paths.get(in), StandardCharsets.UTF_8);
+             PrintWriter w = new PrintWriter(Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8))) {
+            w.println("id,rows,cols,status,length,optimal,nodes,millis");
+            String line;
+            int lineNo = 0;
+            while ((line = r.readLine()) != null) {
+                lineNo++;
+                String t = line.trim();
+                if (t.isEmpty() || t.startsWith("#")) continue;
+                final int id = lineNo;
+                pending.add(CompletableFuture.supplyAsync(() -> solveLine(id, t), pool));
+                while (pending.size() >= window || (!pending.isEmpty() && pending.peek().isDone())) {
+                    if (!write(w, pending.poll().join())) failed++;
+                    count++;
+                }
+            }
+            while (!pending.isEmpty()) {
+                if (!write(w, pending.poll().join())) failed++;
+                count++;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.println(String.format("%d puzzles (%d not ok) in %.2f s on %d threads: %.1f puzzles/sec",
+                count, failed, secs, threads, secs == 0 ? 0 : count / secs));
+        if (compare.length == 0) return;
+        System.out.println(String.format("%-10s %8s %16s %12s", "heuristic", "solved", "nodes", "seconds"));
+        for (int i = 0; i < compare.length; i++)
+            System.out.println(String.format("%-10s %8d %16d %12.2f", compare[i], cmpSolved[i].sum(),
+                    cmpNodes[i].sum(), cmpNanos[i].sum() / 1e9));
+        if (cmpMismatch.sum() > 0) System.out.println("WARNING: " + cmpMismatch.sum() + " boards with differing optimal lengths");
+    }
+
+    /** IDA* under every --compare heuristic; all must agree on the optimal length. */
+    private void compareHeuristics(SlidingState s) {
+        IdaStarSolver[] a = compareSolvers.get();
+        int length = -1;
+        for (int i = 0; i < a.length; i++) {
+            long t0 = System.nanoTime();
+            SolveResult r = a[i].solve(s);
+            cmpNanos[i].add(System.nanoTime() - t0);
+            cmpNodes[i].add(a[i].lastNodes());
+            if (r == null) continue;
+            cmpSolved[i].increment();
+            if (length >= 0 && r.length() != length) cmpMismatch.increment();
+            length = r.length();
+        }
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] a = new LongAdder[n];
+        for (int i = 0; i < n; i++) a[i] = new LongAdder();
+        return a;
+    }
+
+    /** Write one row; true if its status is ok. */
+    private static boolean write(PrintWriter w, String row) {
+        w.println(row);
+        return row.split(",", -1)[3].equals("ok");
+    }
+
+    /** Solve one input line; never throws, failures become a status column. */
+    private String solveLine(int id, String line) {
+        try {
+            return solve(id, line);
+        } catch (RuntimeException e) {
+            // a bad board or solver failure costs one row, not the batch
+            return id + ",,,error,,,,";
+        }
+    }
+
+    private String solve(int id, String line) {
+        String[] tok = line.split("\\s+");
+        if (tok.length < 2) return id + ",,,invalid,,,,";
+        int rows, cols;
+        int[] tiles;
+        try {
+            rows = Integer.parseInt(tok[0]);
+            cols = Integer.parseInt(tok[1]);
+            if (rows < 2 || cols < 2 || tok.length != 2 + rows * cols) return id + ",,,invalid,,,,";
+            tiles = new int[rows * cols];
+            boolean[] seen = new boolean[tiles.length];
+            for (int i = 0; i < tiles.length; i++) {
+                int v = Integer.parseInt(tok[2 + i]);
+                if (v < 0 || v >= tiles.length || seen[v]) return id + "," + rows + "," + cols + ",invalid,,,,";
+                seen[v] = true;
+                tiles[i] = v;
+            }
+        } catch (NumberFormatException e) {
+            return id + ",,,invalid,,,,";
+        }
+        String head = id + "," + rows + "," + cols + ",";
+        if (!SolverUtils.isSolvable(tiles, rows, cols)) return head + "unsolvable,,,,";
+
+        SlidingState s = SlidingState.of(rows, cols, tiles);
+        final int r = rows, c = cols;
+        if (compare.length > 0 && (r * c <= 16 || PatternDatabases.forShape(r, c) != null)) compareHeuristics(s);
+        SlidingSolver solver = solvers.get().computeIfAbsent(r + "x" + c,
+                k -> SlidingSolvers.forShape(r, c, nodeLimit, heuristic));
+        SolveResult res = solver.solve(s);
+        if (res == null) return head + "node-limit,,false,,";
+        boolean ok = verify(SlidingState.of(rows, cols, tiles), res.moves);
+        return head + (ok ? "ok" : "verify-failed") + "," + res.length() + "," + res.optimal + ","
+                + res.nodes + "," + String.format("%.3f", res.millis());
+    }
+
+    private static boolean verify(SlidingState s, int[] moves) {
+        SlidingRules rules = new SlidingRules(StandardGoal.INSTANCE);
+        for (int m : moves) {
+            SlideAction a = new SlideAction(m);
+            if (!rules.isValid(s, a)) return false;
+            s = rules.apply(s, a);
+        }
+        return rules.isTerminal(s);
+    }
+}
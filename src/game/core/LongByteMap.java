@@ -0,0 +1,89 @@
+/**
+ * Project: Game Hub
+ * File: LongByteMap.java
+ * Purpose: Open-addressing long -> byte map with a hard memory cap.
+ */
+package game.core;
+
+/**
+ * Linear probing over parallel long[]/byte[] arrays, so an entry costs 9 bytes
+ * of table instead of two boxed objects. The table doubles at 1/2 load until
+ * it would exceed the cap; after that {@link #put} reports "full" and callers
+ * decide what to do. No removal. Keys must not be {@link #FREE}.
+ */
+public final class LongByteMap {
+    public static final long FREE = Long.MIN_VALUE;
+    public static final int BYTES_PER_SLOT = 9;
+
+    private final int maxCapacity;
+    private long[] keys;
+    private byte[] vals;
+    private int mask, size;
+
+    /** @param maxBytes upper bound on table memory; at least 64 slots are always allowed */
+    public LongByteMap(long maxBytes) {
+        long slots = Math.max(64, Math.min(1L << 30, maxBytes / BYTES_PER_SLOT));
+        maxCapacity = Integer.highestOneBit((int) slots);
+        alloc(Math.min(maxCapacity, 1 << 12));
+    }
+
+    public int size() { return size; }
+
+    /** Current table memory in bytes. */
+    public long bytes() { return (long) keys.length * BYTES_PER_SLOT; }
+
+    /** Value for the key, or -1 if absent. */
+    public int get(long key) {
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return vals[i];
+            if (k == FREE) return -1;
+        }
+    }
+
+    public boolean contains(long key) { return get(key) >= 0; }
+
+    /**
+     * Insert if absent.
+     * @return 1 if inserted, 0 if the key was already present, -1 if the cap was hit
+     */
+    public int put(long key, byte val) {
+        if ((size + 1) * 2L > keys.length) {
+            if (keys.length >= maxCapacity) return -1;
+            rehash(keys.length * 2);
+        }
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return 0;
+            if (k == FREE) { keys[i] = key; vals[i] = val; size++; return 1; }
+        }
+    }
+
+    private void alloc(int cap) {
+        keys = new long[cap];
+        vals = new byte[cap];
+        java.util.Arrays.fill(keys, FREE);
+        mask = cap - 1;
+    }
+
+    private void rehash(int cap) {
+        long[] ok = keys;
+        byte[] ov = vals;
+        alloc(cap);
+        for (int j = 0; j < ok.length; j++) {
+            long key = ok[j];
+            if (key == FREE) continue;
+            int i = mix(key) & mask;
+            while (keys[i] != FREE) i = (i + 1) & mask;
+            keys[i] = key; vals[i] = ov[j];
+        }
+    }
+
+    /** 64-bit finalizer (MurmurHash3 fmix64) folded to an int. */
+    private static int mix(long k) {
+        k ^= k >>> 33; k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33; k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return (int) k;
+    }
+}
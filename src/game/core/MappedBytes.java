@@ -0,0 +1,65 @@
+/**
+ * Project: Game Hub
+ * File: MappedBytes.java
+ * Purpose: Long-indexed byte table backed by a memory-mapped file.
+ */
+package game.core;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Maps a file in 1 GiB chunks so tables larger than 2 GiB can be addressed,
+ * and so the data lives in the page cache instead of the Java heap.
+ * Absolute get/put only, so distinct indices can be written from several threads.
+ */
+public final class MappedBytes implements AutoCloseable {
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final FileChannel ch;
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+
+    private MappedBytes(FileChannel ch, FileChannel.MapMode mode, long size) throws IOException {
+        this.ch = ch; this.size = size;
+        int n = (int) ((size + CHUNK_MASK) >>> CHUNK_BITS);
+        chunks = new MappedByteBuffer[n];
+        for (int i = 0; i < n; i++) {
+            long off = (long) i << CHUNK_BITS;
+            chunks[i] = ch.map(mode, off, Math.min(CHUNK_MASK + 1, size - off));
+        }
+    }
+
+    /** Map an existing file read-only. */
+    public static MappedBytes openReadOnly(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        return new MappedBytes(ch, FileChannel.MapMode.READ_ONLY, ch.size());
+    }
+
+    /** Map a file read-write, creating or extending it (new bytes read as 0). */
+    public static MappedBytes openReadWrite(Path file, long size) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (ch.size() < size) ch.write(java.nio.ByteBuffer.wrap(new byte[1]), size - 1);
+        return new MappedBytes(ch, FileChannel.MapMode.READ_WRITE, size);
+    }
+
+    public long size() { return size; }
+
+    public byte get(long i) { return chunks[(int) (i >>> CHUNK_BITS)].get((int) (i & CHUNK_MASK)); }
+
+    public void put(long i, byte v) { chunks[(int) (i >>> CHUNK_BITS)].put((int) (i & CHUNK_MASK), v); }
+
+    /** Eight bytes starting at i; i must be a multiple of 8. */
+    public long getLong(long i) { return chunks[(int) (i >>> CHUNK_BITS)].getLong((int) (i & CHUNK_MASK)); }
+
+    /** Flush dirty pages to disk. */
+    public void force() { for (MappedByteBuffer b : chunks) b.force(); }
+
+    /** Closes the channel; the mapping itself is released when collected. */
+    @Override public void close() throws IOException { ch.close(); }
+}
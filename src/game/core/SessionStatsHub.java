@@ -26,15 +26,52 @@ public final class SessionStatsHub {
         }
     }
 
+    /** Latency samples for one operation; percentiles from power-of-two microsecond buckets. */
+    public static final class Latency {
+        private final long[] buckets = new long[40];    // bucket b: below 2^b µs
+        private long count, totalNanos, maxNanos;
+
+        public synchronized void record(long nanos) {
+            count++; totalNanos += nanos; maxNanos = Math.max(maxNanos, nanos);
+            long us = nanos / 1000;
+            buckets[Math.min(buckets.length - 1, 64 - Long.numberOfLeadingZeros(us))]++;
+        }
+        public synchronized long count() { return count; }
+
+        /** Upper edge of the bucket holding the p-th percentile, in ms. */
+        public synchronized double percentileMillis(double p) {
+            long rank = (long) Math.ceil(count * p / 100), seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank && seen > 0) return Math.min((1L << b) / 1000.0, maxNanos / 1e6);
+            }
+            return 0;
+        }
+        public synchronized String summary(String name) {
+            double mean = count == 0 ? 0 : totalNanos / 1e6 / count;
+            return String.format("%s → n=%d, mean=%.1f ms, p95≤%.1f ms, max=%.1f ms",
+                    name, count, mean, percentileMillis(95), maxNanos / 1e6);
+        }
+    }
+
     private final Map<String, Stats> map = new LinkedHashMap<>();
+    private final Map<String, Latency> latencies = new LinkedHashMap<>();
     public Stats forGame(String name) {
         return map.computeIfAbsent(name, k -> new Stats());
     }
+    public synchronized Latency latency(String name) {
+        return latencies.computeIfAbsent(name, k -> new Latency());
+    }
     public String summaryAll() {
         StringBuilder sb = new StringBuilder("== Session Stats ==\n");
         for (Map.Entry<String, Stats> e : map.entrySet()) {
             sb.append("  ").append(e.getValue().summary(e.getKey())).append("\n");
         }
+        synchronized (this) {
+            for (Map.Entry<String, Latency> e : latencies.entrySet()) {
+                if (e.getValue().count() > 0) sb.append("  ").append(e.getValue().summary(e.getKey())).append("\n");
+            }
+        }
         return sb.toString();
     }
 }
@@ -0,0 +1,155 @@
+/**
+ * Project: Game Hub
+ * File: ChainIndex.java
+ * Purpose: Incrementally maintained chains, loops and critical edges of a DotsBoard.
+ */
+package puzzles.dots;
+
+/**
+ * Tracks the structure {@link DotsEndgame#decompose} computes, without
+ * rescanning the board: unowned boxes with two or more sides, grouped into
+ * components through unclaimed shared edges (each is a chain or a loop),
+ * plus the critical edges, those that close a box.
+ * <p>
+ * Call {@link #changed} with the edge after every {@link DotsBoard#apply}
+ * and after every {@link DotsBoard#undo}. A claim can split a component as
+ * well as grow one, which a union-find cannot undo, so instead the
+ * components around the edge's two boxes and their neighbours are dropped
+ * and flooded again: O(size of those chains) per move. Queries are O(1)
+ * or O(answer). Not thread-safe; one index per board.
+ */
+final class ChainIndex {
+    private final DotsBoard b;
+    private final int n;
+
+    // components: id per box (-1 = not in one), members as a linked list
+    private final int[] comp, next, head, size;
+    private final byte[] kind;
+    private final int[] free;
+    private int freeTop;
+    private final int[] lenCount;           // components per length
+    private int longCount, maxLen, loops;
+
+    // critical edges as an indexed set
+    private final int[] critList, critPos;
+    private int critCount;
+
+    // scratch
+    private final int[] queue, seeds;
+    private final boolean[] mark;
+
+    ChainIndex(DotsBoard b) {
+        this.b = b;
+        this.n = b.rows * b.cols;
+        comp = new int[n]; next = new int[n]; head = new int[n]; size = new int[n];
+        kind = new byte[n]; free = new int[n];
+        lenCount = new int[n + 1];
+        critList = new int[b.edges]; critPos = new int[b.edges];
+        queue = new int[n]; seeds = new int[10]; mark = new boolean[n];
+        for (int i = 0; i < n; i++) { comp[i] = -1; free[freeTop++] = n - 1 - i; }
+        java.util.Arrays.fill(critPos, -1);
+        for (int e = 0; e < b.edges; e++) updateCritical(e);
+        for (int box = 0; box < n; box++) if (comp[box] < 0 && eligible(box)) flood(box);
+    }
+
+    /** Edge e was just claimed or unclaimed on the board. */
+    void changed(int e) {
+        int a = b.boxA(e), c = b.boxB(e), k = 0;
+        if (a >= 0) k = around(a, k);
+        if (c >= 0) k = around(c, k);
+        for (int i = 0; i < k; i++) if (comp[seeds[i]] >= 0) remove(comp[seeds[i]]);
+        for (int i = 0; i < k; i++) if (comp[seeds[i]] < 0 && eligible(seeds[i])) flood(seeds[i]);
+    }
+
+    // -------------------- queries --------------------
+
+    /** Edges that close a box if claimed. */
+    int criticalCount() { return critCount; }
+    int critical(int i) { return critList[i]; }
+    boolean isCritical(int e) { return critPos[e] >= 0; }
+
+    /** Chains of 3+ boxes, loops not included (the count the long-chain rule uses). */
+    int longChains() { return longCount; }
+    int loops() { return loops; }
+
+    /** Boxes in the longest chain or loop, 0 if none. */
+    int longestChain() {
+        while (maxLen > 0 && lenCount[maxLen] == 0) maxLen--;
+        return maxLen;
+    }
+
+    /** Component of a box, -1 if it has fewer than two sides or is owned. */
+    int componentOf(int box) { return comp[box]; }
+    int length(int id) { return size[id]; }
+    /** One of {@link DotsEndgame#CHAIN}, LOOP, OPEN1, OPEN2. */
+    int kind(int id) { return kind[id]; }
+
+    // -------------------- internals --------------------
+
+    private boolean eligible(int box) { return b.boxOwner(box) == 0 && b.sides(box) >= 2; }
+
+    /** Add box and its neighbours to the seeds; refresh the criticality of its edges. */
+    private int around(int box, int k) {
+        int r = box / b.cols, c = box % b.cols;
+        seeds[k++] = box;
+        if (r > 0) seeds[k++] = box - b.cols;
+        if (r < b.rows - 1) seeds[k++] = box + b.cols;
+        if (c > 0) seeds[k++] = box - 1;
+        if (c < b.cols - 1) seeds[k++] = box + 1;
+        updateCritical(b.h(r, c)); updateCritical(b.h(r + 1, c));
+        updateCritical(b.v(r, c)); updateCritical(b.v(r, c + 1));
+        return k;
+    }
+
+    private void updateCritical(int e) {
+        boolean crit = !b.isClaimed(e) && b.closesBox(e);
+        int p = critPos[e];
+        if (crit && p < 0) { critPos[e] = critCount; critList[critCount++] = e; }
+        else if (!crit && p >= 0) {
+            int last = critList[--critCount];
+            critList[p] = last; critPos[last] = p; critPos[e] = -1;
+        }
+    }
+
+    private void remove(int id) {
+        for (int box = head[id]; box >= 0; box = next[box]) comp[box] = -1;
+        count(id, -1);
+        free[freeTop++] = id;
+    }
+
+    private void flood(int start) {
+        int id = free[--freeTop];
+        int qh = 0, qt = 0, ends = 0, open = 0;
+        boolean cycle = true;
+        queue[qt++] = start; mark[start] = true;
+        head[id] = -1;
+        while (qh < qt) {
+            int box = queue[qh++];
+            comp[box] = id; next[box] = head[id]; head[id] = box;
+            if (b.sides(box) == 3) open++;
+            int r = box / b.cols, c = box % b.cols, degree = 0;
+            for (int side = 0; side < 4; side++) {
+                int e = side == 0 ? b.h(r, c) : side == 1 ? b.h(r + 1, c) : side == 2 ? b.v(r, c) : b.v(r, c + 1);
+                if (b.isClaimed(e)) continue;
+                int other = b.boxA(e) == box ? b.boxB(e) : b.boxA(e);
+                if (other < 0 || !eligible(other)) { ends++; continue; }
+                degree++;
+                if (!mark[other]) { mark[other] = true; queue[qt++] = other; }
+            }
+            if (degree != 2) cycle = false;
+        }
+        for (int i = 0; i < qt; i++) mark[queue[i]] = false;
+        size[id] = qt;
+        kind[id] = (byte) (cycle && ends == 0 && open == 0 ? DotsEndgame.LOOP
+                : open >= 2 ? DotsEndgame.OPEN2 : open == 1 ? DotsEndgame.OPEN1 : DotsEndgame.CHAIN);
+        count(id, 1);
+    }
+
+    private void count(int id, int d) {
+        int len = size[id];
+        lenCount[len] += d;
+        if (kind[id] == DotsEndgame.LOOP) loops += d;
+        else if (len >= 3) longCount += d;
+        if (d > 0 && len > maxLen) maxLen = len;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Project: Game Hub
+ * File: DotsAiAgent.java
+ * Purpose: Computer Dots & Boxes player: iterative-deepening alpha-beta with a chain-aware evaluation.
+ */
+package puzzles.dots;
+
+import game.core.Player;
+import game.core.TurnAgent;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Searches a {@link DotsBoard} copy of the state with apply/undo. Values are
+ * the net boxes (own minus opponent's) the player to move still makes, so a
+ * position's value does not depend on the score so far and the
+ * transposition table can be keyed on the claimed edges and the mover alone.
+ * <ul>
+ *   <li>While a safe move exists, a capturable box is always taken (one
+ *       branch, no depth spent).</li>
+ *   <li>Once the board is settled (only chains and loops left) the value is
+ *       exact, from {@link DotsEndgame}, including when to decline the last
+ *       two or four boxes to keep control.</li>
+ *   <li>Other leaves score the long-chain rule: the first player wants
+ *       dots + long chains (loops excluded) to be even, the second wants it odd.</li>
+ * </ul>
+ * Moves are ordered table move, captures, safe moves, then sacrifices.
+ * Deepening stops at the time budget or when a depth is solved exactly.
+ * Shapes with a {@link DotsTablebase} are played perfectly from the table.
+ */
+public final class DotsAiAgent implements TurnAgent<DotsState, ClaimEdge> {
+    private static final int INF = 1 << 20;
+    private static final int TT_BITS = 20, TT_MASK = (1 << TT_BITS) - 1;
+    private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+    private static final int MAX_DEPTH = 64;
+    private static final long SIDE = 0x9E3779B97F4A7C15L;
+
+    private final Player player;
+    private final long budgetNanos;
+    private final DotsEndgame endgame = new DotsEndgame();
+
+    // transposition table, replaced by depth
+    private final long[] ttKey = new long[1 << TT_BITS];
+    private final int[] ttValue = new int[1 << TT_BITS], ttMove = new int[1 << TT_BITS];
+    private final byte[] ttDepth = new byte[1 << TT_BITS], ttFlag = new byte[1 << TT_BITS];
+    private final boolean[] ttHeuristic = new boolean[1 << TT_BITS];    // some leaf below was estimated
+
+    // per search
+    private DotsBoard board;
+    private ChainIndex chains;
+    private long[] zobrist;
+    private long hash, deadline, nodes;
+    private boolean aborted, heuristic;
+    private int[][] moveBuf;
+    private int lastDepth, lastValue;
+
+    /** @param millisPerMove thinking time per move (1000 plays 5x5 well) */
+    public DotsAiAgent(Player player, long millisPerMove) {
+        this.player = player;
+        this.budgetNanos = Math.max(1, millisPerMove) * 1_000_000L;
+    }
+
+    @Override public Player player() { return player; }
+
+    /** Depth reached by the last completed iteration. */
+    public int lastDepth() { return lastDepth; }
+
+    /** Net boxes the last move was expected to make from its position. */
+    public int lastValue() { return lastValue; }
+
+    @Override public ClaimEdge chooseAction(DotsState state) {
+        deadline = System.nanoTime() + budgetNanos;
+        DotsTablebase table = DotsTablebase.forShape(state.rows, state.cols);
+        if (table != null) {
+            lastDepth = 0; lastValue = table.value(state);
+            return table.bestMove(state);
+        }
+        board = DotsBoard.of(state);
+        if (board.isTerminal()) return null;
+        chains = new ChainIndex(board);
+        if (zobrist == null || zobrist.length != board.edges) {
+            zobrist = new long[board.edges];
+            Random rnd = new Random(board.rows * 31L + board.cols);
+            for (int e = 0; e < zobrist.length; e++) zobrist[e] = rnd.nextLong();
+            Arrays.fill(ttKey, 0);
+        }
+        hash = 0;
+        for (int e = 0; e < board.edges; e++) if (board.isClaimed(e)) hash ^= zobrist[e];
+        moveBuf = new int[board.edges + 1][];
+        aborted = false; nodes = 0;
+
+        int[] root = rootMoves();
+        int best = root[0];
+        lastDepth = 0; lastValue = 0;
+        if (root.length > 1) {
+            for (int depth = 1; depth <= Math.min(MAX_DEPTH, board.edges); depth++) {
+                heuristic = false;
+                int alpha = -INF, bestHere = -1;
+                for (int m : root) {
+                    int v = child(m, depth - 1, alpha, INF, 1);
+                    if (aborted) break;
+                    if (v > alpha) { alpha = v; bestHere = m; }
+                }
+                if (aborted) break;
+                best = bestHere; lastDepth = depth; lastValue = alpha;
+                moveToFront(root, best);
+                if (!heuristic) break;                          // every line was played out exactly
+            }
+        }
+        return new ClaimEdge(board.pos(best));
+    }
+
+    /** Captures are forced while a safe move exists; otherwise every unclaimed edge. */
+    private int[] rootMoves() {
+        int capture = -1, n = 0;
+        boolean safe = false;
+        for (int e = 0; e < board.edges; e++) {
+            if (board.isClaimed(e)) continue;
+            n++;
+            if (capture < 0 && board.closesBox(e)) capture = e;
+            if (DotsEndgame.isSafe(board, e)) safe = true;
+        }
+        if (capture >= 0 && safe) return new int[]{capture};
+        int[] moves = new int[n];
+        orderMoves(moves, n, -1);
+        return moves;
+    }
+
+    private static void moveToFront(int[] moves, int m) {
+        for (int i = 0; i < moves.length; i++)
+            if (moves[i] == m) { System.arraycopy(moves, 0, moves, 1, i); moves[0] = m; return; }
+    }
+
+    /** Value for the current mover of playing e, then searching on. */
+    private int child(int e, int depth, int alpha, int beta, int ply) {
+        int gained = board.apply(e);
+        chains.changed(e);
+        hash ^= zobrist[e];
+        int v = gained > 0 ? gained + search(depth, alpha - gained, beta - gained, ply)
+                           : -search(depth, -beta, -alpha, ply);
+        hash ^= zobrist[e];
+        board.undo();
+        chains.changed(e);
+        return v;
+    }
+
+    private int search(int depth, int alpha, int beta, int ply) {
+        if (board.isTerminal()) return 0;
+        if ((++nodes & 4095) == 0 && System.nanoTime() > deadline) aborted = true;
+        if (aborted) return 0;
+        if (DotsEndgame.isSettled(board)) return endgame.value(board);
+
+        int capture = chains.criticalCount() > 0 ? chains.critical(0) : -1;
+        boolean safe = false;
+        for (int e = 0; e < board.edges && !safe; e++)
+            if (!board.isClaimed(e) && DotsEndgame.isSafe(board, e)) safe = true;
+        if (capture >= 0 && safe) return child(capture, depth, alpha, beta, ply);
+        if (depth <= 0) { heuristic = true; return evaluate(); }
+
+        long key = board.current() == 0 ? hash : hash ^ SIDE;
+        int slot = (int) (key ^ key >>> 32) & TT_MASK, ttBest = -1;
+        if (ttKey[slot] == key) {
+            ttBest = ttMove[slot];
+            if (ttDepth[slot] >= depth) {
+                int v = ttValue[slot], f = ttFlag[slot];
+                if (f == EXACT || (f == LOWER && v >= beta) || (f == UPPER && v <= alpha)) {
+                    heuristic |= ttHeuristic[slot];
+                    return v;
+                }
+            }
+        }
+
+        int[] moves = moveBuf[ply];
+        if (moves == null) moves = moveBuf[ply] = new int[board.edges];
+        int n = 0;
+        for (int e = 0; e < board.edges; e++) if (!board.isClaimed(e)) n++;
+        orderMoves(moves, n, ttBest);
+
+        boolean outer = heuristic;
+        heuristic = false;
+        int alpha0 = alpha, best = -INF, bestMove = moves[0];
+        for (int i = 0; i < n; i++) {
+            int v = child(moves[i], depth - 1, alpha, beta, ply + 1);
+            if (aborted) return 0;
+            if (v > best) { best = v; bestMove = moves[i]; }
+            if (v > alpha) alpha = v;
+            if (alpha >= beta) break;
+        }
+        if (ttDepth[slot] <= depth || ttKey[slot] != key) {
+            ttKey[slot] = key; ttValue[slot] = best; ttMove[slot] = bestMove;
+            ttDepth[slot] = (byte) depth;
+            ttFlag[slot] = (byte) (best <= alpha0 ? UPPER : best >= beta ? LOWER : EXACT);
+            ttHeuristic[slot] = heuristic;
+        }
+        heuristic |= outer;
+        return best;
+    }
+
+    /** Fill moves[0..n) with the unclaimed edges: first, captures, safe moves, then sacrifices. */
+    private void orderMoves(int[] moves, int n, int first) {
+        int k = 0;
+        if (first >= 0) moves[k++] = first;
+        for (int pass = 0; pass < 3; pass++)
+            for (int e = 0; e < board.edges; e++) {
+                if (board.isClaimed(e) || e == first) continue;
+                int kind = board.closesBox(e) ? 0 : DotsEndgame.isSafe(board, e) ? 1 : 2;
+                if (kind == pass) moves[k++] = e;
+            }
+    }
+
+    /**
+     * Long-chain rule for the player to move: with the parity in their favour
+     * the other side should end up opening the long chains. Loops do not
+     * count towards the parity; they only shrink the stake, since keeping
+     * control through a loop hands back four boxes.
+     */
+    private int evaluate() {
+        int dots = (board.rows + 1) * (board.cols + 1);
+        int longChains = chains.longChains();
+        boolean firstWins = ((dots + longChains) & 1) == 0;
+        int left = board.rows * board.cols - board.claimedBoxes();
+        int stake = Math.min(left, Math.max(1, 1 + longChains - chains.loops()));
+        return firstWins == (board.current() == 0) ? stake : -stake;
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Project: Game Hub
+ * File: DotsBoard.java
+ * Purpose: Mutable Dots & Boxes position with O(1) apply and undo, for search.
+ */
+package puzzles.dots;
+
+/**
+ * Edges are numbered horizontal first, row-major ((rows+1) x cols), then
+ * vertical (rows x (cols+1)). apply claims one edge, bumps the side count of
+ * at most two boxes and pushes what changed onto an undo stack; undo pops it.
+ * Nothing else is touched, so a search can walk a 50x50 game without
+ * allocating. {@link DotsState} stays the immutable snapshot the UI renders:
+ * convert with {@link #of(DotsState)} and {@link #snapshot()}.
+ * Not thread-safe: use one board per search thread.
+ */
+public final class DotsBoard {
+    public final int rows, cols;
+    /** Number of edges; ids 0..hEdges-1 are horizontal, the rest vertical. */
+    public final int edges, hEdges;
+
+    private final PlayerInfo[] players;
+    private final int[] boxA, boxB;            // boxes each edge borders, -1 = none
+    private final long[] claimed;              // bit per edge id
+    private final char[] edgeOwner;
+    private final char[] boxOwner;
+    private final byte[] sides;                // claimed sides per box
+    private final int[] score = new int[2];
+    private int current, claimedBoxes;
+
+    // undo stack: edge << 3 | closed second box << 2 | closed first box << 1 | mover
+    private int[] history;
+    private int depth;
+
+    public DotsBoard(int rows, int cols, PlayerInfo p1, PlayerInfo p2) {
+        if (rows < 1 || cols < 1) throw new IllegalArgumentException("min 1x1 boxes");
+        this.rows = rows; this.cols = cols;
+        this.hEdges = (rows + 1) * cols;
+        this.edges = hEdges + rows * (cols + 1);
+        this.players = new PlayerInfo[]{p1, p2};
+        boxA = new int[edges]; boxB = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            if (e < hEdges) {
+                int r = e / cols, c = e % cols;
+                boxA[e] = r > 0    ? (r - 1) * cols + c : -1;
+                boxB[e] = r < rows ? r * cols + c       : -1;
+            } else {
+                int r = (e - hEdges) / (cols + 1), c = (e - hEdges) % (cols + 1);
+                boxA[e] = c > 0    ? r * cols + c - 1 : -1;
+                boxB[e] = c < cols ? r * cols + c     : -1;
+            }
+        }
+        claimed = new long[(edges + 63) >>> 6];
+        edgeOwner = new char[edges];
+        boxOwner = new char[rows * cols];
+        sides = new byte[rows * cols];
+        history = new int[edges];
+    }
+
+    /** A board at the same position as a snapshot (its undo history starts empty). */
+    public static DotsBoard of(DotsState s) {
+        DotsBoard b = new DotsBoard(s.rows, s.cols, s.players[0], s.players[1]);
+        for (int r = 0; r <= s.rows; r++)
+            for (int c = 0; c < s.cols; c++)
+                if (s.hasH(r, c)) b.setClaimed(b.h(r, c), s.Howner[r][c]);
+        for (int r = 0; r < s.rows; r++)
+            for (int c = 0; c <= s.cols; c++)
+                if (s.hasV(r, c)) b.setClaimed(b.v(r, c), s.Vowner[r][c]);
+        for (int r = 0; r < s.rows; r++)
+            for (int c = 0; c < s.cols; c++) b.boxOwner[r * s.cols + c] = s.boxOwner[r][c];
+        b.score[0] = s.score[0]; b.score[1] = s.score[1];
+        b.current = s.current; b.claimedBoxes = s.claimedBoxes;
+        return b;
+    }
+
+    private void setClaimed(int e, char owner) {
+        claimed[e >>> 6] |= 1L << e; edgeOwner[e] = owner;
+        if (boxA[e] >= 0) sides[boxA[e]]++;
+        if (boxB[e] >= 0) sides[boxB[e]]++;
+    }
+
+    /** Immutable copy for rendering or the Rules API. */
+    public DotsState snapshot() {
+        long[] H = new long[EdgeBits.words(rows, cols)], V = new long[H.length];
+        char[][] Hown = new char[rows + 1][cols], Vown = new char[rows][cols + 1];
+        char[][] box = new char[rows][cols];
+        for (int r = 0; r <= rows; r++)
+            for (int c = 0; c < cols; c++) {
+                int e = h(r, c);
+                if (isClaimed(e)) EdgeBits.set(H, r * (cols + 1) + c);
+                Hown[r][c] = edgeOwner[e];
+            }
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c <= cols; c++) {
+                int e = v(r, c);
+                if (isClaimed(e)) EdgeBits.set(V, r * (cols + 1) + c);
+                Vown[r][c] = edgeOwner[e];
+            }
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++) box[r][c] = boxOwner[r * cols + c];
+        return new DotsState(rows, cols, players[0], players[1])
+                .with(H, V, Hown, Vown, box, current, new int[]{score[0], score[1]}, claimedBoxes);
+    }
+
+    // -------------------- edge ids --------------------
+
+    public int h(int r, int c) { return r * cols + c; }
+    public int v(int r, int c) { return hEdges + r * (cols + 1) + c; }
+
+    public int id(EdgePos p) { return p.o == Orientation.H ? h(p.r, p.c) : v(p.r, p.c); }
+
+    public EdgePos pos(int e) {
+        if (e < hEdges) return new EdgePos(Orientation.H, e / cols, e % cols);
+        int x = e - hEdges;
+        return new EdgePos(Orientation.V, x / (cols + 1), x % (cols + 1));
+    }
+
+    /** Box on each side of an edge (row-major box index), -1 off the board. */
+    public int boxA(int e) { return boxA[e]; }
+    public int boxB(int e) { return boxB[e]; }
+
+    // -------------------- moves --------------------
+
+    /**
+     * Claim an unclaimed edge for the player to move; the turn passes unless a box closes.
+     * @return boxes closed (0..2)
+     */
+    public int apply(int e) {
+        if (isClaimed(e)) throw new IllegalArgumentException("edge already claimed: " + pos(e));
+        int p = current;
+        char mark = players[p].mark;
+        claimed[e >>> 6] |= 1L << e; edgeOwner[e] = mark;
+        int closed = 0, a = boxA[e], b = boxB[e];
+        if (a >= 0 && ++sides[a] == 4) { boxOwner[a] = mark; closed |= 1; }
+        if (b >= 0 && ++sides[b] == 4) { boxOwner[b] = mark; closed |= 2; }
+        int gained = Integer.bitCount(closed);
+        score[p] += gained; claimedBoxes += gained;
+        if (gained == 0) current = 1 - p;
+        history[depth++] = e << 3 | closed << 1 | p;
+        return gained;
+    }
+
+    /** Revert the most recent {@link #apply}. */
+    public void undo() {
+        if (depth == 0) throw new IllegalStateException("nothing to undo");
+        int rec = history[--depth];
+        int e = rec >>> 3, closed = (rec >> 1) & 3, p = rec & 1;
+        int a = boxA[e], b = boxB[e];
+        if (a >= 0) sides[a]--;
+        if (b >= 0) sides[b]--;
+        if ((closed & 1) != 0) boxOwner[a] = 0;
+        if ((closed & 2) != 0) boxOwner[b] = 0;
+        int gained = Integer.bitCount(closed);
+        score[p] -= gained; claimedBoxes -= gained;
+        current = p;
+        claimed[e >>> 6] &= ~(1L << e); edgeOwner[e] = 0;
+    }
+
+    /** Moves that can still be undone. */
+    public int depth() { return depth; }
+
+    // -------------------- queries --------------------
+
+    public boolean isClaimed(int e) { return (claimed[e >>> 6] & (1L << e)) != 0; }
+    public char edgeOwner(int e) { return edgeOwner[e]; }
+    public char boxOwner(int box) { return boxOwner[box]; }
+    public int sides(int box) { return sides[box]; }
+
+    /** True if claiming e closes at least one box. */
+    public boolean closesBox(int e) {
+        return (boxA[e] >= 0 && sides[boxA[e]] == 3) || (boxB[e] >= 0 && sides[boxB[e]] == 3);
+    }
+
+    public int current() { return current; }
+    public PlayerInfo player(int i) { return players[i]; }
+    public int score(int player) { return score[player]; }
+    public int claimedBoxes() { return claimedBoxes; }
+    public boolean isTerminal() { return claimedBoxes == rows * cols; }
+}
@@ -0,0 +1,120 @@
+/**
+ * Project: Game Hub
+ * File: DotsDiffRenderer.java
+ * Purpose: Redraws only what changed since the last frame, by cursor positioning.
+ */
+package puzzles.dots;
+
+import game.core.Renderer;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Wraps {@link DotsRendererAnsi}. A full frame clears the screen and draws the
+ * board from the top-left corner, so every edge and box has a fixed screen
+ * cell; the next frame then only moves the cursor to the edges and boxes that
+ * changed, rewrites them and clears whatever was printed below the board.
+ * A full frame is drawn instead when:
+ * <ul>
+ *   <li>the terminal cannot position the cursor or report its size (no console,
+ *       TERM=dumb, no stty) — then every frame is the plain full render, as before;</li>
+ *   <li>the terminal size changed or is too small for the board plus the prompt
+ *       lines below it. The size is read again on {@link #invalidate} and every
+ *       {@link #SIZE_EVERY} frames, not on every frame (reading it starts a process);</li>
+ *   <li>a new game started (an edge disappeared) or {@link #invalidate} was
+ *       called because the caller printed enough to scroll the board.</li>
+ * </ul>
+ * Screen layout (1-based): line 1 is the header, edge row r is line 2 + 2r,
+ * box row r is line 3 + 2r; H(r,c) starts at column 4c + 2, V(r,c) is column
+ * 4c + 1 and box (r,c) starts at column 4c + 2.
+ */
+public final class DotsDiffRenderer implements Renderer<DotsState> {
+    private static final String ESC = "\u001B[";
+    private static final int PROMPT_LINES = 6;          // kept free below the board
+    private static final int SIZE_EVERY = 32;           // frames between size checks
+
+    private final DotsRendererAnsi full;
+    private final boolean cursorOk;
+    private final Supplier<int[]> size;                 // {lines, columns} or null if unknown
+
+    private DotsState last;
+    private int[] lastSize, cachedSize;
+    private int sinceSize;
+    private boolean invalid = true;
+
+    public DotsDiffRenderer(DotsRendererAnsi full, boolean cursorOk, Supplier<int[]> size) {
+        this.full = full; this.cursorOk = cursorOk; this.size = size;
+    }
+
+    /** Diff rendering if stdout is an ANSI terminal whose size stty can read; plain full frames otherwise. */
+    public static DotsDiffRenderer forConsole(DotsRendererAnsi full) {
+        String term = System.getenv("TERM");
+        boolean ansi = System.console() != null && term != null && !term.equals("dumb") && ttySize() != null;
+        return new DotsDiffRenderer(full, ansi, DotsDiffRenderer::ttySize);
+    }
+
+    /** True if frames are drawn in place; otherwise every frame is a plain full render printed below the last. */
+    public boolean positionsCursor() { return cursorOk; }
+
+    /** Draw the next frame in full (call after printing output that may have scrolled the board). */
+    public void invalidate() { invalid = true; }
+
+    @Override public String render(DotsState s) {
+        if (!cursorOk) return full.render(s);
+        if (invalid || cachedSize == null || ++sinceSize >= SIZE_EVERY) { cachedSize = size.get(); sinceSize = 0; }
+        int[] sz = cachedSize;
+        boolean fits = sz != null && sz[0] >= boardLines(s) + PROMPT_LINES && sz[1] >= 4 * s.cols + 1;
+        if (!fits) { last = null; return full.render(s); }
+        String out = invalid || !continues(s) || !Arrays.equals(sz, lastSize)
+                ? ESC + "H" + ESC + "2J" + full.render(s)
+                : diff(s);
+        last = s; lastSize = sz; invalid = false;
+        return out;
+    }
+
+    /** Header, edge rows and box rows. */
+    private static int boardLines(DotsState s) { return 2 * s.rows + 2; }
+
+    /** True if s is last plus some claims, on the same board. */
+    private boolean continues(DotsState s) {
+        if (last == null || last.rows != s.rows || last.cols != s.cols) return false;
+        for (int i = 0; i < s.H.length; i++)
+            if ((last.H[i] & ~s.H[i]) != 0 || (last.V[i] & ~s.V[i]) != 0) return false;
+        return true;
+    }
+
+    private String diff(DotsState s) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r <= s.rows; r++)
+            for (int c = 0; c < s.cols; c++)
+                if (s.hasH(r, c) && !last.hasH(r, c)) at(sb, 2 + 2 * r, 4 * c + 2).append(full.tinted("---", s.Howner[r][c]));
+        for (int r = 0; r < s.rows; r++)
+            for (int c = 0; c <= s.cols; c++)
+                if (s.hasV(r, c) && !last.hasV(r, c)) at(sb, 3 + 2 * r, 4 * c + 1).append(full.tinted("|", s.Vowner[r][c]));
+        for (int r = 0; r < s.rows; r++)
+            for (int c = 0; c < s.cols; c++)
+                if (s.boxOwner[r][c] != last.boxOwner[r][c]) at(sb, 3 + 2 * r, 4 * c + 2).append(full.boxFill(s.boxOwner[r][c]));
+        // park below the board and wipe the previous turn's prompt and messages
+        return at(sb, boardLines(s) + 1, 1).append(ESC).append("J").toString();
+    }
+
+    private static StringBuilder at(StringBuilder sb, int line, int col) {
+        return sb.append(ESC).append(line).append(';').append(col).append('H');
+    }
+
+    /** {lines, columns} from "stty size" on the controlling terminal, or null. */
+    private static int[] ttySize() {
+        try {
+            Process p = new ProcessBuilder("sh", "-c", "stty size < /dev/tty").redirectErrorStream(true).start();
+            String line;
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream()))) { line = r.readLine(); }
+            if (p.waitFor() != 0 || line == null) return null;
+            String[] t = line.trim().split("\\s+");
+            return new int[]{Integer.parseInt(t[0]), Integer.parseInt(t[1])};
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Project: Game Hub
+ * File: DotsEndgame.java
+ * Purpose: Chain/loop decomposition and the exact value of loony endgames.
+ */
+package puzzles.dots;
+
+import java.util.Arrays;
+
+/**
+ * Once every unowned box has at least two sides ("settled"), no safe move is
+ * left and the board is a set of chains and loops. The player to move must
+ * open one; the other player either takes it all and moves next, or takes
+ * all but 2 (chain) / 4 (loop) and keeps control by handing those back.
+ * {@link #value} plays this out exactly over the multiset of components,
+ * first cashing in any components already opened. Short chains (1, 2) are
+ * opened with the hard-hearted handout, so they cannot be declined.
+ * A component's value depends only on its kind and length, so the memo is
+ * keyed on the multiset of (kind, length) codes, hashed to 64 bits as a sum
+ * of mixed codes (Zobrist-style, updated as components are removed); a 5x5
+ * endgame is a few dozen table lookups. The memo and all scratch arrays are
+ * primitive and belong to the instance, so a value allocates nothing once
+ * warmed up. Not thread-safe: use one instance per search thread.
+ */
+final class DotsEndgame {
+    static final int CHAIN = 0, LOOP = 1, OPEN1 = 2, OPEN2 = 3;     // OPEN*: capturable at one / both ends
+    private static final int MEMO_SIZE = 1 << 16;                   // direct-mapped, always replace
+
+    private final long[] memoKey = new long[MEMO_SIZE];
+    private final int[] memoValue = new int[MEMO_SIZE];
+    private int[] codes = new int[0], counts = new int[0];          // closed components as distinct codes
+    private int distinct;
+
+    private int[] queue = new int[0];
+    private boolean[] seen = new boolean[0];
+    private int[] types = new int[0], lengths = new int[0];
+    private int count;
+
+    /** True if every unowned box has two or more sides claimed. */
+    static boolean isSettled(DotsBoard b) {
+        int n = b.rows * b.cols;
+        for (int box = 0; box < n; box++) if (b.sides(box) < 2) return false;
+        return true;
+    }
+
+    /** A safe move claims an edge without giving the opponent a box. */
+    static boolean isSafe(DotsBoard b, int e) {
+        int a = b.boxA(e), c = b.boxB(e);
+        return (a < 0 || b.sides(a) < 2) && (c < 0 || b.sides(c) < 2);
+    }
+
+    /**
+     * Net boxes (own minus opponent's) the player to move makes from here on
+     * with best play by both sides. Only valid when {@link #isSettled}.
+     */
+    int value(DotsBoard b) {
+        decompose(b, 2);
+        int opened = 0, closed = 0;
+        boolean decline2 = false, decline4 = false;
+        long key = 0;
+        if (codes.length < count) { codes = new int[count]; counts = new int[count]; }
+        distinct = 0;
+        for (int i = 0; i < count; i++) {
+            int t = types[i], len = lengths[i];
+            if (t == OPEN1) { opened += len; decline2 |= len >= 2; }
+            else if (t == OPEN2) { opened += len; decline4 |= len >= 4; }
+            else { addCode(t << 16 | len); key += mix(t << 16 | len); closed++; }
+        }
+        int v = closedValue(key, closed);
+        int best = opened + v;                                // take everything, then open something
+        if (decline2) best = Math.max(best, opened - 4 - v);  // leave 2, opponent opens next
+        if (decline4) best = Math.max(best, opened - 8 - v);  // leave 4
+        return best;
+    }
+
+    /**
+     * Exact value of each edge for the player to move: boxes it closes plus
+     * what follows with best play. Integer.MIN_VALUE for claimed edges.
+     * @return null unless the board is settled
+     */
+    int[] moveValues(DotsBoard b) {
+        if (!isSettled(b)) return null;
+        int[] out = new int[b.edges];
+        for (int e = 0; e < b.edges; e++) {
+            if (b.isClaimed(e)) { out[e] = Integer.MIN_VALUE; continue; }
+            int gained = b.apply(e);
+            out[e] = gained > 0 ? gained + value(b) : -value(b);   // settled stays settled
+            b.undo();
+        }
+        return out;
+    }
+
+    private void addCode(int code) {
+        for (int i = 0; i < distinct; i++) if (codes[i] == code) { counts[i]++; return; }
+        codes[distinct] = code;
+        counts[distinct++] = 1;
+    }
+
+    /** Value for the player who must open one of the left closed components in codes/counts; key hashes them. */
+    private int closedValue(long key, int left) {
+        if (left == 0) return 0;
+        int slot = (int) key & (MEMO_SIZE - 1);
+        if (memoKey[slot] == key) return memoValue[slot];
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < distinct; i++) {
+            if (counts[i] == 0) continue;
+            int code = codes[i], len = code & 0xFFFF;
+            counts[i]--;
+            int v = closedValue(key - mix(code), left - 1);
+            counts[i]++;
+            int opp;                                               // what the opponent nets from the opening
+            if (code >>> 16 == LOOP) opp = Math.max(len + v, len - 8 - v);
+            else if (len >= 3) opp = Math.max(len + v, len - 4 - v);
+            else opp = len + v;
+            best = Math.max(best, -opp);
+        }
+        memoKey[slot] = key;
+        memoValue[slot] = best;
+        return best;
+    }
+
+    /** 64-bit mix of a component code (splitmix64 finalizer). */
+    private static long mix(int code) {
+        long z = (code + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    int components() { return count; }
+    int type(int i) { return types[i]; }
+    int length(int i) { return lengths[i]; }
+
+    /**
+     * Split the unowned boxes with at least minSides sides into components
+     * joined by unclaimed edges. On a settled board every component is a
+     * path or a cycle; boxes below minSides act as ground.
+     */
+    void decompose(DotsBoard b, int minSides) {
+        int n = b.rows * b.cols;
+        if (seen.length < n) { seen = new boolean[n]; queue = new int[n]; }
+        Arrays.fill(seen, 0, n, false);
+        count = 0;
+        for (int start = 0; start < n; start++) {
+            if (seen[start] || b.boxOwner(start) != 0 || b.sides(start) < minSides) continue;
+            int head = 0, tail = 0, size = 0, ends = 0, open = 0;
+            boolean cycle = true;
+            queue[tail++] = start; seen[start] = true;
+            while (head < tail) {
+                int box = queue[head++];
+                size++;
+                if (b.sides(box) == 3) open++;
+                int r = box / b.cols, c = box % b.cols, degree = 0;
+                for (int j = 0; j < 4; j++) {
+                    int e = j == 0 ? b.h(r, c) : j == 1 ? b.h(r + 1, c) : j == 2 ? b.v(r, c) : b.v(r, c + 1);
+                    if (b.isClaimed(e)) continue;
+                    int other = b.boxA(e) == box ? b.boxB(e) : b.boxA(e);
+                    if (other < 0 || b.boxOwner(other) != 0 || b.sides(other) < minSides) { ends++; continue; }
+                    degree++;
+                    if (!seen[other]) { seen[other] = true; queue[tail++] = other; }
+                }
+                if (degree != 2) cycle = false;
+            }
+            if (count == types.length) {
+                types = Arrays.copyOf(types, Math.max(8, count * 2));
+                lengths = Arrays.copyOf(lengths, types.length);
+            }
+            types[count] = cycle && ends == 0 && open == 0 ? LOOP : open >= 2 ? OPEN2 : open == 1 ? OPEN1 : CHAIN;
+            lengths[count++] = size;
+        }
+    }
+}
@@ -2,7 +2,11 @@ package puzzles.dots;
 
 import game.core.ConsoleIO;
 import game.core.Game;
+import game.core.Player;
 import game.core.Renderer;
+import game.core.TurnAgent;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Dots & Boxes (strict input: only "H r c" or "V r c").
@@ -12,6 +16,9 @@ import game.core.Renderer;
  *   • edges                                 → list claimed edges
  *   • rules                                 → show rules/help
  *   • q                                     → end round
+ * Either player can be the computer, about 1 s per move: {@link DotsAiAgent}
+ * (alpha-beta, the stronger player in our games up to 6x6), or, on request,
+ * {@link DotsMctsAgent} (Monte Carlo on all cores).
  */
 public final class DotsGame implements Game {
     private final ConsoleIO io;
@@ -19,9 +26,12 @@ public final class DotsGame implements Game {
 
     // Choose renderer:
     // private final Renderer<DotsState> renderer = new DotsRenderer();              // plain ASCII
-    private final Renderer<DotsState> renderer = new DotsRendererAnsi(true, true);  // color boxes + tint edges
+    // private final Renderer<DotsState> renderer = new DotsRendererAnsi(true, true);  // color boxes + tint edges
+    private final DotsDiffRenderer renderer = DotsDiffRenderer.forConsole(new DotsRendererAnsi(true, true)); // redraws only changes
 
     private final SessionStats stats;
+    private final DotsEndgame endgame = new DotsEndgame();
+    private static final long AI_MILLIS = 1000;
 
     public DotsGame(ConsoleIO io, SessionStats stats) {
         this.io = io; this.stats = stats;
@@ -48,24 +58,30 @@ public final class DotsGame implements Game {
     private void playOnce() {
         int rows = askInt("Boxes rows (>=1) [3]: ", 3, 1, 50);
         int cols = askInt("Boxes cols (>=1) [3]: ", 3, 1, 50);
-        io.print("Player 1 name [Player1]: ");
-        String n1 = orDefault(io.nextLine().trim(), "Player1");
-        io.print("Player 2 name [Player2]: ");
-        String n2 = orDefault(io.nextLine().trim(), "Player2");
+        List<TurnAgent<DotsState, ClaimEdge>> agents = new ArrayList<>();
+        String n1 = askPlayer(1, agents);
+        String n2 = askPlayer(2, agents);
         PlayerInfo p1 = new PlayerInfo(n1,'A'), p2 = new PlayerInfo(n2,'B');
 
         DotsState state = new DotsState(rows, cols, p1, p2);
+        DotsBoard board = DotsBoard.of(state);          // kept in step with state for the chain index
+        ChainIndex chains = new ChainIndex(board);
 
-        io.println("");
-        io.println("INPUT :");
-        io.println("  H r c   -> horizontal edge at dot-row r, between cols c and c+1");
-        io.println("  V r c   -> vertical edge at dot-col c, between rows r and r+1");
-        io.println("Ranges:  H r -> [0.." + rows + "], c -> [0.." + (cols-1) + "]   |   V r -> [0.." + (rows-1) + "], c -> [0.." + cols + "]");
-        io.println("Commands: avail | edges | rules | q");
-        io.println("");
+        // under the board until the first human prompt: a full frame clears the screen
+        String help = "INPUT :\n"
+                + "  H r c   -> horizontal edge at dot-row r, between cols c and c+1\n"
+                + "  V r c   -> vertical edge at dot-col c, between rows r and r+1\n"
+                + "Ranges:  H r -> [0.." + rows + "], c -> [0.." + (cols-1) + "]   |   V r -> [0.." + (rows-1) + "], c -> [0.." + cols + "]\n"
+                + "Commands: avail | edges | rules | q\n";
 
+        renderer.invalidate();
+        boolean redraw = true;                          // false keeps command output on screen until the next move
+        String note = null;                             // printed under the board, after the redraw
         while (true) {
-            io.println(renderer.render(state));
+            if (redraw) io.println(renderer.render(state));
+            redraw = true;
+            if (help != null) { io.println(help); renderer.invalidate(); }     // may have scrolled the board
+            if (note != null) { io.println(note); note = null; }
             if (rules.isTerminal(state)) {
                 io.println("Score: " + p1.name + "=" + state.score[0] + ", " + p2.name + "=" + state.score[1]);
                 if (state.score[0] == state.score[1]) { io.println("It's a tie!"); stats.ties++; }
@@ -75,30 +91,65 @@ public final class DotsGame implements Game {
             }
 
             PlayerInfo cur = state.players[state.current];
+            TurnAgent<DotsState, ClaimEdge> agent = agents.get(state.current);
+            if (agent != null) {
+                ClaimEdge a = agent.chooseAction(state);
+                String how = "";
+                if (agent instanceof DotsMctsAgent && ((DotsMctsAgent) agent).lastPlayouts() > 0) {
+                    DotsMctsAgent m = (DotsMctsAgent) agent;
+                    how = String.format("   (%,d playouts, %,.0f/s)", m.lastPlayouts(), m.lastPlayoutsPerSecond());
+                }
+                note = cur.name + " (" + cur.mark + ") plays " + (a.edge.o == Orientation.H ? "H " : "V ") + a.edge.r + " " + a.edge.c + how;
+                state = rules.apply(state, a);
+                claim(board, chains, a);
+                continue;
+            }
             io.print(cur.name + " (" + cur.mark + ") move [H r c | V r c | avail | edges | rules | q]: ");
             String line = io.nextLine().trim();
             String lower = line.toLowerCase();
+            help = null;
 
             // Commands
             if (lower.equals("q")) break;
-            if (lower.equals("edges")) { listEdges(state); continue; }
-            if (lower.equals("rules")) { showRules(); continue; }
-            if (lower.equals("avail") || lower.startsWith("avail ")) { handleAvail(line, state); continue; }
-
+            ClaimEdge a = null;
+            if (lower.equals("edges")) listEdges(state);
+            else if (lower.equals("rules")) showRules();
+            else if (lower.equals("avail") || lower.startsWith("avail ")) handleAvail(line, state, board, chains);
             // Strict H/V parsing only
-            ClaimEdge a = parseHV(line);
+            else if ((a = parseHV(line)) == null) io.println("Invalid input. Use: H r c  or  V r c.  Example:  H 1 0");
+            else if (!rules.isValid(state, a)) { io.println("Invalid: " + rules.validationError(state, a)); a = null; }
             if (a == null) {
-                io.println("Invalid input. Use: H r c  or  V r c.  Example:  H 1 0");
-                continue;
-            }
-            if (!rules.isValid(state, a)) {
-                io.println("Invalid: " + rules.validationError(state, a));
+                // in place, keep that output on screen; the board is drawn in full again after the next move
+                redraw = !renderer.positionsCursor();
+                renderer.invalidate();
                 continue;
             }
             state = rules.apply(state, a);
+            claim(board, chains, a);
         }
     }
 
+    private static void claim(DotsBoard board, ChainIndex chains, ClaimEdge a) {
+        int e = board.id(a.edge);
+        board.apply(e);
+        chains.changed(e);
+    }
+
+    /** Name for player i; adds a computer agent for it, or null for a human. */
+    private String askPlayer(int i, List<TurnAgent<DotsState, ClaimEdge>> agents) {
+        io.print("Player " + i + ": 1) Human 2) Computer 3) Computer (Monte Carlo) [1]: ");
+        String kind = io.nextLine().trim();
+        boolean computer = kind.equals("2") || kind.equals("3");
+        String def = (computer ? "Computer" : "Player") + i;
+        io.print("Player " + i + " name [" + def + "]: ");
+        String name = orDefault(io.nextLine().trim(), def);
+        TurnAgent<DotsState, ClaimEdge> ai = null;
+        if (kind.equals("2")) ai = new DotsAiAgent(new Player(i, name), AI_MILLIS);
+        if (kind.equals("3")) ai = DotsMctsAgent.timed(new Player(i, name), AI_MILLIS);
+        agents.add(ai);
+        return name;
+    }
+
     // -------------------- Parsing (H/V only) --------------------
 
     /** Accepts only "H r c" or "V r c". */
@@ -116,7 +167,7 @@ public final class DotsGame implements Game {
 
     // -------------------- 'avail' listing --------------------
 
-    private void handleAvail(String line, DotsState state) {
+    private void handleAvail(String line, DotsState state, DotsBoard board, ChainIndex chains) {
     // Parse options: avail [all|critical|N] [row K|col K]
     String[] t = line.trim().split("\\s+");
     boolean criticalOnly = false;
@@ -132,9 +183,16 @@ public final class DotsGame implements Game {
         if (isInt(x)) { limit = Integer.parseInt(x); continue; }
     }
 
-    java.util.List<EdgeUtils.EdgeRow> rows = EdgeUtils.listAvailable(state, criticalOnly);
+    java.util.List<EdgeUtils.EdgeRow> rows = criticalOnly ? EdgeUtils.listCritical(board, chains)
+                                                          : EdgeUtils.listAvailable(state, false);
     if (filterKind != null) rows = EdgeUtils.filterByRowCol(rows, filterKind, filterVal);
 
+    // small boards are solved outright; elsewhere once only chains and loops are left
+    DotsTablebase table = DotsTablebase.forShape(state.rows, state.cols);
+    int[] values = table != null ? table.moveValues(board) : endgame.moveValues(board);
+    int best = Integer.MIN_VALUE;
+    if (values != null) for (int v : values) best = Math.max(best, v);
+
     io.println("\nAvailable edges " + (criticalOnly ? "(critical only) " : "") +
             "(showing " + Math.min(limit, rows.size()) + " of " + rows.size() + "):");
     io.println("  H/V move  | Note");
@@ -143,8 +201,19 @@ public final class DotsGame implements Game {
     for (EdgeUtils.EdgeRow e : rows) {
         if (shown++ >= limit) break;
         String note = e.critical ? "closes a box" : "";
+        if (values != null) {
+            int v = values[board.id(new EdgePos(e.o, e.r, e.c))];
+            String opt = (v == best ? "optimal " : "") + "(" + (v >= 0 ? "+" : "") + v + ")";
+            note = note.isEmpty() ? opt : note + ", " + opt;
+        }
         io.println(String.format("  %-9s | %s", e.hv, note));
     }
+    if (values != null) {
+        PlayerInfo cur = state.players[state.current];
+        int margin = state.score[state.current] - state.score[1 - state.current] + best;
+        io.println((table != null ? "Solved" : "Endgame solved") + ": with best play " + cur.name + " finishes " + (margin >= 0 ? "+" : "") + margin
+                + " (values are net boxes from here for " + cur.name + ")");
+    }
     io.println("");
     }
 
@@ -154,10 +223,10 @@ public final class DotsGame implements Game {
     private void listEdges(DotsState s) {
         io.println("Claimed H edges (r,c,by):");
         for (int r=0;r<=s.rows;r++) for (int c=0;c<s.cols;c++)
-            if (s.H[r][c]) io.println("  H "+r+" "+c+" by "+(s.Howner[r][c]==0?'-':s.Howner[r][c]));
+            if (s.hasH(r, c)) io.println("  H "+r+" "+c+" by "+(s.Howner[r][c]==0?'-':s.Howner[r][c]));
         io.println("Claimed V edges (r,c,by):");
         for (int r=0;r<s.rows;r++) for (int c=0;c<=s.cols;c++)
-            if (s.V[r][c]) io.println("  V "+r+" "+c+" by "+(s.Vowner[r][c]==0?'-':s.Vowner[r][c]));
+            if (s.hasV(r, c)) io.println("  V "+r+" "+c+" by "+(s.Vowner[r][c]==0?'-':s.Vowner[r][c]));
     }
 
     private void showRules() {
@@ -169,6 +238,8 @@ public final class DotsGame implements Game {
         io.println("  -> H r c   or   V r c");
         io.println("    Ranges:  H r -> [0..rows], c -> [0..cols-1]   |   V r -> [0..rows-1], c -> [0..cols]");
         io.println("  -> Commands: 'avail' (list), 'edges' (claimed), 'rules' (help), 'q' (end round)");
+        io.println("  -> In the endgame (only chains and loops left) 'avail' marks the optimal moves;");
+        io.println("     on boards with a tablebase (java puzzles.dots.DotsTablebase rows cols) it always does.");
     }
 
     private void showHighScores() {
@@ -0,0 +1,249 @@
+/**
+ * Project: Game Hub
+ * File: DotsMctsAgent.java
+ * Purpose: Computer Dots & Boxes player for large boards: tree-parallel Monte Carlo tree search.
+ */
+package puzzles.dots;
+
+import game.core.Player;
+import game.core.TurnAgent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Every worker thread descends one shared tree by UCT, plays the game out on
+ * its own {@link DotsBoard} and undoes it afterwards, so a playout allocates
+ * nothing. Node statistics are plain fields updated with atomic field
+ * updaters (no locks); a thread counts its visit on the way down, which is
+ * the virtual loss that steers other threads to other branches until the
+ * result comes back. A node is expanded once it has been visited
+ * {@link #EXPAND_AT} times, children published by compare-and-set.
+ * Results are win 2 / draw 1 / loss 0 from the view of the player who made
+ * each node's move; that player is whoever was to move, so a completed box
+ * keeps the turn exactly as in {@link DotsRules#apply}.
+ * Playouts capture whenever they can and otherwise play a random safe edge.
+ * Once no box has fewer than two sides, random play is worst at what matters
+ * (who opens which chain, when to decline), so the playout stops there and
+ * {@link DotsEndgame} supplies the exact rest of the game. Each worker has
+ * its own DotsEndgame, whose memo is a primitive table, so that step neither
+ * allocates nor contends with the other workers.
+ */
+public final class DotsMctsAgent implements TurnAgent<DotsState, ClaimEdge> {
+    private static final int EXPAND_AT = 8;
+    private static final double EXPLORE = 0.7;
+    // with this few safe moves left alpha-beta reaches settled positions and plays the fight for control exactly
+    private static final int CLOSE_SAFE = 24;
+    // shared by every agent; idle workers exit after a minute, so finished rounds leave no threads behind
+    private static final ExecutorService POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "dots-mcts");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Player player;
+    private final long millisPerMove, playoutLimit;
+    private final int threads;
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final DotsAiAgent closer;
+
+    private long lastPlayouts, lastNanos;
+    private double lastWinRate;
+
+    /**
+     * @param millisPerMove time per move, 0 = no time limit
+     * @param playoutLimit  playouts per move, 0 = no limit (one of the two must be set)
+     * @param threads       worker threads, usually the core count
+     */
+    public DotsMctsAgent(Player player, long millisPerMove, long playoutLimit, int threads) {
+        if (millisPerMove <= 0 && playoutLimit <= 0) throw new IllegalArgumentException("need a time or playout limit");
+        this.player = player;
+        this.millisPerMove = millisPerMove; this.playoutLimit = playoutLimit;
+        this.threads = Math.max(1, threads);
+        this.closer = new DotsAiAgent(player, millisPerMove > 0 ? millisPerMove : 1000);
+    }
+
+    /** Search for a fixed time per move on every core. */
+    public static DotsMctsAgent timed(Player player, long millisPerMove) {
+        return new DotsMctsAgent(player, millisPerMove, 0, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Search a fixed number of playouts per move on every core. */
+    public static DotsMctsAgent playouts(Player player, long playouts) {
+        return new DotsMctsAgent(player, 0, playouts, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override public Player player() { return player; }
+
+    public long lastPlayouts() { return lastPlayouts; }
+
+    public double lastPlayoutsPerSecond() { return lastNanos == 0 ? 0 : lastPlayouts * 1e9 / lastNanos; }
+
+    /** Share of the last search's playouts through the chosen move that the mover won (draws count half). */
+    public double lastWinRate() { return lastWinRate; }
+
+    @Override public ClaimEdge chooseAction(DotsState state) {
+        long t0 = System.nanoTime();
+        DotsBoard board = DotsBoard.of(state);
+        if (board.isTerminal()) return null;
+        lastPlayouts = 0; lastNanos = 0; lastWinRate = 0;
+        int safe = 0;
+        for (int e = 0; e < board.edges; e++) if (!board.isClaimed(e) && DotsEndgame.isSafe(board, e)) safe++;
+        if (safe <= CLOSE_SAFE) return closer.chooseAction(state);
+        Node root = new Node(-1, 1 - board.current());
+        Node[] first = expand(root, board);
+        if (first.length == 1) return new ClaimEdge(board.pos(first[0].edge));
+        long deadline = millisPerMove > 0 ? t0 + millisPerMove * 1_000_000L : Long.MAX_VALUE;
+        AtomicLong done = new AtomicLong();
+        List<Future<?>> running = new ArrayList<Future<?>>();
+        for (int i = 0; i < threads; i++) {
+            Worker w = new Worker(DotsBoard.of(state), seeds.split(), root, deadline, done);
+            running.add(POOL.submit(w));
+        }
+        try {
+            for (Future<?> f : running) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        Node best = null;
+        for (Node c : root.children) if (best == null || c.visits > best.visits) best = c;
+        lastPlayouts = done.get(); lastNanos = System.nanoTime() - t0;
+        lastWinRate = best.visits == 0 ? 0 : best.reward / (2.0 * best.visits);
+        return new ClaimEdge(board.pos(best.edge));
+    }
+
+    /**
+     * Children for every unclaimed edge, or just one capture while a safe move
+     * remains (taking it first is never worse). If another thread got there
+     * first, its children.
+     */
+    private static Node[] expand(Node node, DotsBoard board) {
+        int n = 0, mover = board.current(), capture = -1;
+        boolean safe = false;
+        for (int e = 0; e < board.edges; e++) {
+            if (board.isClaimed(e)) continue;
+            n++;
+            if (capture < 0 && board.closesBox(e)) capture = e;
+            if (!safe && DotsEndgame.isSafe(board, e)) safe = true;
+        }
+        Node[] ch;
+        if (capture >= 0 && safe) ch = new Node[]{ new Node(capture, mover) };
+        else {
+            ch = new Node[n];
+            for (int e = 0, k = 0; e < board.edges; e++) if (!board.isClaimed(e)) ch[k++] = new Node(e, mover);
+        }
+        return Node.CHILDREN.compareAndSet(node, null, ch) ? ch : node.children;
+    }
+
+    /** Tree node: the move into it and who made it, with lock-free statistics. */
+    private static final class Node {
+        static final AtomicIntegerFieldUpdater<Node> VISITS = AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        static final AtomicLongFieldUpdater<Node> REWARD = AtomicLongFieldUpdater.newUpdater(Node.class, "reward");
+        static final AtomicReferenceFieldUpdater<Node, Node[]> CHILDREN =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node[].class, "children");
+
+        final int edge, mover;
+        volatile int visits;
+        volatile long reward;          // half-points for mover
+        volatile Node[] children;      // null until expanded
+
+        Node(int edge, int mover) { this.edge = edge; this.mover = mover; }
+    }
+
+    private final class Worker implements Runnable {
+        private final DotsBoard board;
+        private final SplittableRandom rnd;
+        private final Node root;
+        private final long deadline;
+        private final AtomicLong done;
+        private final Node[] path;
+        private final int[] free;
+        private final DotsEndgame endgame = new DotsEndgame();
+
+        Worker(DotsBoard board, SplittableRandom rnd, Node root, long deadline, AtomicLong done) {
+            this.board = board; this.rnd = rnd; this.root = root; this.deadline = deadline; this.done = done;
+            this.path = new Node[board.edges + 1];
+            this.free = new int[board.edges];
+        }
+
+        @Override public void run() {
+            for (long n = done.getAndIncrement(); playoutLimit <= 0 || n < playoutLimit; n = done.getAndIncrement()) {
+                if (System.nanoTime() > deadline) break;
+                iterate();
+            }
+            done.decrementAndGet();    // the claim that ended the loop was not played
+        }
+
+        private void iterate() {
+            Node node = root;
+            int len = 0;
+            path[len++] = node;
+            Node.VISITS.incrementAndGet(node);
+            while (!board.isTerminal()) {
+                Node[] ch = node.children;
+                if (ch == null) {
+                    if (node.visits < EXPAND_AT) break;
+                    ch = expand(node, board);
+                }
+                node = select(node, ch);
+                Node.VISITS.incrementAndGet(node);          // virtual loss until the result is added
+                board.apply(node.edge);
+                path[len++] = node;
+            }
+            int margin = playout();                         // player 0 minus player 1
+            for (int i = 1; i < len; i++) {
+                int m = path[i].mover == 0 ? margin : -margin;
+                Node.REWARD.addAndGet(path[i], m > 0 ? 2 : m == 0 ? 1 : 0);
+            }
+            while (board.depth() > 0) board.undo();
+        }
+
+        private Node select(Node node, Node[] ch) {
+            double logN = Math.log(Math.max(1, node.visits)), bestScore = Double.NEGATIVE_INFINITY;
+            Node best = ch[0];
+            int start = rnd.nextInt(ch.length);             // spreads ties between threads
+            for (int i = 0; i < ch.length; i++) {
+                Node c = ch[(start + i) % ch.length];
+                int v = c.visits;
+                if (v == 0) return c;
+                double score = c.reward / (2.0 * v) + EXPLORE * Math.sqrt(logN / v);
+                if (score > bestScore) { bestScore = score; best = c; }
+            }
+            return best;
+        }
+
+        /** Finish the game from the board; returns the final score margin for player 0. */
+        private int playout() {
+            int n = 0;
+            for (int e = 0; e < board.edges; e++) if (!board.isClaimed(e)) free[n++] = e;
+            while (n > 0 && !DotsEndgame.isSettled(board)) {
+                int pick = -1;
+                for (int i = 0; i < n && pick < 0; i++) if (board.closesBox(free[i])) pick = i;
+                if (pick < 0) {
+                    int start = rnd.nextInt(n);
+                    for (int i = 0; i < n && pick < 0; i++) {
+                        int j = (start + i) % n;
+                        if (DotsEndgame.isSafe(board, free[j])) pick = j;
+                    }
+                    if (pick < 0) pick = start;
+                }
+                board.apply(free[pick]);
+                free[pick] = free[--n];
+            }
+            int margin = board.score(0) - board.score(1);
+            if (n == 0) return margin;
+            int rest = endgame.value(board);
+            return board.current() == 0 ? margin + rest : margin - rest;
+        }
+    }
+}
@@ -18,23 +18,23 @@ public final class DotsRenderer implements Renderer<DotsState> {
             // top edges with owner mark in the middle, e.g. -A-
             for (int c = 0; c < s.cols; c++) {
                 sb.append(".");
-                if (s.H[r][c]) sb.append("-").append(mark(s.Howner[r][c])).append("-");
+                if (s.hasH(r, c)) sb.append("-").append(mark(s.Howner[r][c])).append("-");
                 else           sb.append("   ");
             }
             sb.append(".\n");
             // verticals with boxes
             for (int c = 0; c < s.cols; c++) {
-                if (s.V[r][c]) sb.append(mark(s.Vowner[r][c]));
+                if (s.hasV(r, c)) sb.append(mark(s.Vowner[r][c]));
                 else           sb.append(" ");
                 char m = s.boxOwner[r][c] == 0 ? ' ' : s.boxOwner[r][c];
                 sb.append(" ").append(m).append(" ");
             }
-            sb.append(s.V[r][s.cols] ? String.valueOf(mark(s.Vowner[r][s.cols]))+"\n" : " \n");
+            sb.append(s.hasV(r, s.cols) ? String.valueOf(mark(s.Vowner[r][s.cols]))+"\n" : " \n");
         }
         // bottom edges
         for (int c = 0; c < s.cols; c++) {
             sb.append(".");
-            if (s.H[s.rows][c]) sb.append("-").append(mark(s.Howner[s.rows][c])).append("-");
+            if (s.hasH(s.rows, c)) sb.append("-").append(mark(s.Howner[s.rows][c])).append("-");
             else                sb.append("   ");
         }
         sb.append(".\n");
@@ -36,7 +36,7 @@ public final class DotsRendererAnsi implements Renderer<DotsState> {
             // top edges
             for (int c = 0; c < s.cols; c++) {
                 sb.append(".");
-                if (s.H[r][c]) sb.append(tinted("---", s.Howner[r][c]));
+                if (s.hasH(r, c)) sb.append(tinted("---", s.Howner[r][c]));
                 else           sb.append("   ");
             }
             sb.append(".\n");
@@ -44,7 +44,7 @@ public final class DotsRendererAnsi implements Renderer<DotsState> {
             // verticals + boxes
             for (int c = 0; c < s.cols; c++) {
                 // vertical edge
-                if (s.V[r][c]) sb.append(tinted("|", s.Vowner[r][c]));
+                if (s.hasV(r, c)) sb.append(tinted("|", s.Vowner[r][c]));
                 else           sb.append(" ");
 
                 // box content
@@ -54,7 +54,7 @@ public final class DotsRendererAnsi implements Renderer<DotsState> {
                 // no character between boxes; right boundary handled below
             }
             // rightmost vertical boundary
-            if (s.V[r][s.cols]) sb.append(tinted("|", s.Vowner[r][s.cols]));
+            if (s.hasV(r, s.cols)) sb.append(tinted("|", s.Vowner[r][s.cols]));
             else                sb.append(" ");
             sb.append("\n");
         }
@@ -62,7 +62,7 @@ public final class DotsRendererAnsi implements Renderer<DotsState> {
         // bottom edges
         for (int c = 0; c < s.cols; c++) {
             sb.append(".");
-            if (s.H[s.rows][c]) sb.append(tinted("---", s.Howner[s.rows][c]));
+            if (s.hasH(s.rows, c)) sb.append(tinted("---", s.Howner[s.rows][c]));
             else                sb.append("   ");
         }
         sb.append(".\n");
@@ -71,7 +71,7 @@ public final class DotsRendererAnsi implements Renderer<DotsState> {
     }
 
     // Paint a box with color or shading; keep width=3 to match cell spacing
-    private String boxFill(char owner) {
+    String boxFill(char owner) {
         if (!color) {
             // Monochrome shading: A = ▓▓▓, B = ░░░, empty = spaces
             if (owner == 'A') return "▓▓▓";
@@ -84,7 +84,7 @@ public final class DotsRendererAnsi implements Renderer<DotsState> {
     }
 
     // Tint edges with the owner's color (foreground); else return raw
-    private String tinted(String raw, char owner) {
+    String tinted(String raw, char owner) {
         if (!color || !colorEdges) return raw;
         if (owner == 'A') return FG_RED + raw + RESET;
         if (owner == 'B') return FG_BLUE + raw + RESET;
@@ -16,32 +16,44 @@ public final class DotsRules implements Rules<DotsState, ClaimEdge> {
         EdgePos e = a.edge;
         if (e.o == Orientation.H) {
             if (e.r < 0 || e.r > s.rows || e.c < 0 || e.c >= s.cols) return false;
-            return !s.H[e.r][e.c];
+            return !s.hasH(e.r, e.c);
         } else {
             if (e.r < 0 || e.r >= s.rows || e.c < 0 || e.c > s.cols) return false;
-            return !s.V[e.r][e.c];
+            return !s.hasV(e.r, e.c);
         }
     }
 
+    /**
+     * Copy-on-write: the new state shares every row the move leaves alone and
+     * copies only the claimed edge's bitset, the outer owner arrays plus the
+     * rows the move writes, so a move costs O(rows + cols), not O(rows * cols).
+     * Search code should use {@link DotsBoard} instead.
+     */
     @Override public DotsState apply(DotsState s, ClaimEdge a) {
-        boolean[][] H = copy(s.H), V = copy(s.V);
-        char[][] Hown = copy(s.Howner), Vown = copy(s.Vowner);
-        char[][] box = copy(s.boxOwner);
+        long[] H = s.H, V = s.V;
+        char[][] Hown = s.Howner.clone(), Vown = s.Vowner.clone();
+        char[][] box = s.boxOwner.clone();
         int[] sc = new int[]{s.score[0], s.score[1]};
         int claimed = s.claimedBoxes;
 
         EdgePos e = a.edge;
         char mark = s.players[s.current].mark;
-        if (e.o == Orientation.H) { H[e.r][e.c] = true; Hown[e.r][e.c] = mark; }
-        else                       { V[e.r][e.c] = true; Vown[e.r][e.c] = mark; }
+        int w = s.stride, b = e.r * w + e.c;
+        if (e.o == Orientation.H) {
+            H = H.clone(); EdgeBits.set(H, b);
+            Hown[e.r] = Hown[e.r].clone(); Hown[e.r][e.c] = mark;
+        } else {
+            V = V.clone(); EdgeBits.set(V, b);
+            Vown[e.r] = Vown[e.r].clone(); Vown[e.r][e.c] = mark;
+        }
 
         int gained = 0;
         if (e.o == Orientation.H) {
-            if (e.r-1 >= 0 && closes(H,V,e.r-1,e.c)) { box[e.r-1][e.c] = mark; gained++; }
-            if (e.r < s.rows && closes(H,V,e.r,e.c)) { box[e.r][e.c]   = mark; gained++; }
+            if (e.r-1 >= 0 && closes(H,V,b-w,w))     { claimBox(box, e.r-1, e.c, mark); gained++; }
+            if (e.r < s.rows && closes(H,V,b,w))     { claimBox(box, e.r, e.c, mark);   gained++; }
         } else {
-            if (e.c-1 >= 0 && closes(H,V,e.r,e.c-1)) { box[e.r][e.c-1] = mark; gained++; }
-            if (e.c < s.cols && closes(H,V,e.r,e.c)) { box[e.r][e.c]   = mark; gained++; }
+            if (e.c-1 >= 0 && closes(H,V,b-1,w))     { claimBox(box, e.r, e.c-1, mark); gained++; }
+            if (e.c < s.cols && closes(H,V,b,w))     { claimBox(box, e.r, e.c, mark);   gained++; }
         }
 
         if (gained > 0) sc[s.current] += gained;
@@ -49,14 +61,19 @@ public final class DotsRules implements Rules<DotsState, ClaimEdge> {
         return s.with(H, V, Hown, Vown, box, next, sc, claimed + gained);
     }
 
+    /** box is a fresh outer array whose rows may still be shared with the previous state. */
+    private static void claimBox(char[][] box, int r, int c, char mark) {
+        box[r] = box[r].clone();
+        box[r][c] = mark;
+    }
+
     @Override public String validationError(DotsState s, ClaimEdge a) {
         return "Edge out of bounds or already claimed.";
     }
 
-    private static boolean closes(boolean[][] H, boolean[][] V, int r, int c) {
-        return H[r][c] && H[r+1][c] && V[r][c] && V[r][c+1];
+    /** All four sides of box bit b (stride w) claimed. */
+    private static boolean closes(long[] H, long[] V, int b, int w) {
+        return EdgeBits.get(H, b) && EdgeBits.get(H, b + w) && EdgeBits.get(V, b) && EdgeBits.get(V, b + 1);
     }
-    private static boolean[][] copy(boolean[][] x){ boolean[][] y=new boolean[x.length][]; for (int i=0;i<x.length;i++) y[i]=x[i].clone(); return y; }
-    private static char[][] copy(char[][] x){ char[][] y=new char[x.length][]; for (int i=0;i<x.length;i++) y[i]=x[i].clone(); return y; }
 }
 
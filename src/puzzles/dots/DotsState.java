@@ -5,11 +5,18 @@
  */
 package puzzles.dots;
 
+/**
+ * Immutable snapshot: states produced by {@link DotsRules#apply} share the
+ * rows a move did not change, so the arrays must never be written to.
+ * Searches use the mutable {@link DotsBoard}.
+ */
 public final class DotsState {
     public final int rows, cols;
-    // edge claimed flags
-    public final boolean[][] H;        // (rows+1) x cols
-    public final boolean[][] V;        // rows x (cols+1)
+    /** Bit index of H(r,c), V(r,c) and box (r,c) is r * stride + c (see EdgeBits). */
+    public final int stride;
+    // edge claimed flags as bitsets
+    public final long[] H;             // H(r,c): r in 0..rows, c in 0..cols-1
+    public final long[] V;             // V(r,c): r in 0..rows-1, c in 0..cols
     // NEW: who claimed each edge (0 if unclaimed, else 'A' / 'B')
     public final char[][] Howner;      // (rows+1) x cols
     public final char[][] Vowner;      // rows x (cols+1)
@@ -22,9 +29,9 @@ public final class DotsState {
 
     public DotsState(int rows, int cols, PlayerInfo p1, PlayerInfo p2) {
         if (rows < 1 || cols < 1) throw new IllegalArgumentException("min 1x1 boxes");
-        this.rows=rows; this.cols=cols;
-        this.H = new boolean[rows+1][cols];
-        this.V = new boolean[rows][cols+1];
+        this.rows=rows; this.cols=cols; this.stride=cols+1;
+        this.H = new long[EdgeBits.words(rows, cols)];
+        this.V = new long[EdgeBits.words(rows, cols)];
         this.Howner = new char[rows+1][cols];
         this.Vowner = new char[rows][cols+1];
         this.boxOwner = new char[rows][cols];
@@ -34,15 +41,18 @@ public final class DotsState {
         this.claimedBoxes = 0;
     }
 
-    private DotsState(int rows,int cols,boolean[][]H,boolean[][]V,
+    private DotsState(int rows,int cols,long[]H,long[]V,
                       char[][]Howner,char[][]Vowner,char[][]boxOwner,
                       PlayerInfo[] players,int current,int[] score,int claimed) {
-        this.rows=rows; this.cols=cols; this.H=H; this.V=V;
+        this.rows=rows; this.cols=cols; this.stride=cols+1; this.H=H; this.V=V;
         this.Howner=Howner; this.Vowner=Vowner; this.boxOwner=boxOwner;
         this.players=players; this.current=current; this.score=score; this.claimedBoxes=claimed;
     }
 
-    public DotsState with(boolean[][] H, boolean[][] V, char[][] Howner, char[][] Vowner,
+    public boolean hasH(int r, int c) { return EdgeBits.get(H, r * stride + c); }
+    public boolean hasV(int r, int c) { return EdgeBits.get(V, r * stride + c); }
+
+    public DotsState with(long[] H, long[] V, char[][] Howner, char[][] Vowner,
                           char[][] boxOwner, int current, int[] score, int claimed) {
         return new DotsState(rows, cols, H, V, Howner, Vowner, boxOwner, players, current, score, claimed);
     }
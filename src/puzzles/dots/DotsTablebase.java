@@ -0,0 +1,191 @@
+/**
+ * Project: Game Hub
+ * File: DotsTablebase.java
+ * Purpose: Retrograde-solved small Dots & Boxes boards, one byte per edge mask, memory-mapped.
+ */
+package puzzles.dots;
+
+import game.core.MappedBytes;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * For boards of at most {@link #MAX_EDGES} edges (2x2, 2x3, 2x4, 3x3, ...)
+ * every set of claimed edges is a position: bit e of the index is edge id e of
+ * {@link DotsBoard}. The byte stored is the net boxes (own minus opponent's)
+ * the player to move still makes with perfect play; owners, scores and whose
+ * turn it is do not change that. Adding an edge only sets bits, so a single
+ * pass from the full mask down to 0 sees every successor before its
+ * predecessors. 3x3 is 2^24 bytes (16 MB) and builds in seconds.
+ * Tables live in the directory named by {@link #DIR_PROPERTY} (default
+ * "tablebase"), one file per shape, and are mapped on first use.
+ */
+public final class DotsTablebase {
+    public static final int MAX_EDGES = 24;
+    public static final String DIR_PROPERTY = "dots.tablebase.dir";
+
+    private static final Map<String, DotsTablebase> CACHE = new HashMap<String, DotsTablebase>();
+
+    private final int rows, cols;
+    private final MappedBytes table;
+
+    private DotsTablebase(int rows, int cols, MappedBytes table) {
+        this.rows = rows; this.cols = cols; this.table = table;
+    }
+
+    public static Path directory() { return Paths.get(System.getProperty(DIR_PROPERTY, "tablebase")); }
+
+    /**
+     * Mapped table for the shape, or null if absent. Only tables that load are
+     * cached, so one built or copied in later is picked up on the next call.
+     */
+    public static synchronized DotsTablebase forShape(int rows, int cols) {
+        String key = rows + "x" + cols;
+        DotsTablebase t = CACHE.get(key);
+        if (t == null) {
+            try { t = load(directory(), rows, cols); }
+            catch (IOException e) { return null; }
+            if (t != null) CACHE.put(key, t);
+        }
+        return t;
+    }
+
+    /** Map a table built by {@link #build}; null if absent or the wrong size. */
+    public static DotsTablebase load(Path dir, int rows, int cols) throws IOException {
+        int edges = edges(rows, cols);
+        if (edges > MAX_EDGES) return null;
+        Path f = file(dir, rows, cols);
+        if (!Files.isRegularFile(f) || Files.size(f) != 1L << edges) return null;
+        return new DotsTablebase(rows, cols, MappedBytes.openReadOnly(f));
+    }
+
+    /** e.g. dir/3x3.dtb */
+    static Path file(Path dir, int rows, int cols) { return dir.resolve(rows + "x" + cols + ".dtb"); }
+
+    static int edges(int rows, int cols) { return (rows + 1) * cols + rows * (cols + 1); }
+
+    // -------------------- lookups --------------------
+
+    /** Net boxes the player to move still makes with perfect play. */
+    public int value(DotsState s) {
+        DotsBoard b = DotsBoard.of(s);
+        checkShape(b);
+        return table.get(mask(b));
+    }
+
+    /** Final score margin (player to move minus opponent) with perfect play from here. */
+    public int finalMargin(DotsState s) {
+        return s.score[s.current] - s.score[1 - s.current] + value(s);
+    }
+
+    /** A perfect move; null if the game is over. */
+    public ClaimEdge bestMove(DotsState s) {
+        DotsBoard b = DotsBoard.of(s);
+        int[] v = moveValues(b);
+        int best = -1;
+        for (int e = 0; e < v.length; e++) if (v[e] != Integer.MIN_VALUE && (best < 0 || v[e] > v[best])) best = e;
+        return best < 0 ? null : new ClaimEdge(b.pos(best));
+    }
+
+    /**
+     * Exact value of each edge for the player to move, as {@link DotsEndgame#moveValues}:
+     * boxes it closes plus what follows. Integer.MIN_VALUE for claimed edges.
+     */
+    int[] moveValues(DotsBoard b) {
+        checkShape(b);
+        long mask = mask(b);
+        int[] out = new int[b.edges];
+        for (int e = 0; e < b.edges; e++) {
+            if ((mask >>> e & 1) != 0) { out[e] = Integer.MIN_VALUE; continue; }
+            int gained = gained(b, mask, e);
+            int next = table.get(mask | 1L << e);
+            out[e] = gained > 0 ? gained + next : -next;
+        }
+        return out;
+    }
+
+    private void checkShape(DotsBoard b) {
+        if (b.rows != rows || b.cols != cols)
+            throw new IllegalArgumentException("tablebase is " + rows + "x" + cols + ", board is " + b.rows + "x" + b.cols);
+    }
+
+    private static long mask(DotsBoard b) {
+        long m = 0;
+        for (int e = 0; e < b.edges; e++) if (b.isClaimed(e)) m |= 1L << e;
+        return m;
+    }
+
+    /** Boxes closed by claiming e on top of mask. */
+    private static int gained(DotsBoard b, long mask, int e) {
+        int n = 0;
+        if (b.boxA(e) >= 0 && (mask & others(b, b.boxA(e), e)) == others(b, b.boxA(e), e)) n++;
+        if (b.boxB(e) >= 0 && (mask & others(b, b.boxB(e), e)) == others(b, b.boxB(e), e)) n++;
+        return n;
+    }
+
+    /** The box's sides other than e, as an edge mask. */
+    private static long others(DotsBoard b, int box, int e) {
+        int r = box / b.cols, c = box % b.cols;
+        long m = 1L << b.h(r, c) | 1L << b.h(r + 1, c) | 1L << b.v(r, c) | 1L << b.v(r, c + 1);
+        return m & ~(1L << e);
+    }
+
+    // -------------------- build --------------------
+
+    /** Solve every position of the shape into dir; an existing table is kept. Returns its path. */
+    public static Path build(int rows, int cols, Path dir, Consumer<String> log) throws IOException {
+        int edges = edges(rows, cols);
+        if (rows < 1 || cols < 1 || edges > MAX_EDGES) throw new IllegalArgumentException("need at most " + MAX_EDGES + " edges");
+        Files.createDirectories(dir);
+        Path out = file(dir, rows, cols);
+        long size = 1L << edges;
+        if (Files.isRegularFile(out) && Files.size(out) == size) return out;
+        Path tmp = dir.resolve(out.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+
+        DotsBoard b = new DotsBoard(rows, cols, new PlayerInfo("A", 'A'), new PlayerInfo("B", 'B'));
+        // per edge: the other three sides of the box on each side (0 = no box there)
+        long[] sideA = new long[edges], sideB = new long[edges];
+        for (int e = 0; e < edges; e++) {
+            sideA[e] = b.boxA(e) >= 0 ? others(b, b.boxA(e), e) : 0;
+            sideB[e] = b.boxB(e) >= 0 ? others(b, b.boxB(e), e) : 0;
+        }
+        long t0 = System.nanoTime();
+        try (MappedBytes t = MappedBytes.openReadWrite(tmp, size)) {
+            // the full mask is terminal: value 0, already the file's fill
+            for (long mask = size - 2; mask >= 0; mask--) {
+                int best = Integer.MIN_VALUE;
+                for (long free = ~mask & (size - 1); free != 0; free &= free - 1) {
+                    int e = Long.numberOfTrailingZeros(free);
+                    int gained = (sideA[e] != 0 && (mask & sideA[e]) == sideA[e] ? 1 : 0)
+                               + (sideB[e] != 0 && (mask & sideB[e]) == sideB[e] ? 1 : 0);
+                    int next = t.get(mask | 1L << e);
+                    int v = gained > 0 ? gained + next : -next;
+                    if (v > best) best = v;
+                }
+                t.put(mask, (byte) best);
+                if ((mask & 0x3FFFFF) == 0 && mask > 0) log.accept(String.format("%dx%d: %d positions left", rows, cols, mask));
+            }
+            t.force();
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING);
+        log.accept(String.format("%dx%d: %d positions in %.1f s", rows, cols, size, (System.nanoTime() - t0) / 1e9));
+        return out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: java puzzles.dots.DotsTablebase rows cols [dir]");
+            return;
+        }
+        int rows = Integer.parseInt(args[0]), cols = Integer.parseInt(args[1]);
+        Path dir = args.length > 2 ? Paths.get(args[2]) : directory();
+        System.out.println("wrote " + build(rows, cols, dir, System.out::println));
+    }
+}
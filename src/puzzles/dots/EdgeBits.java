@@ -0,0 +1,64 @@
+/**
+ * Project: Game Hub
+ * File: EdgeBits.java
+ * Purpose: long[] bitset helpers for the stride-aligned edge and box layout.
+ */
+package puzzles.dots;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Horizontal edges, vertical edges and boxes each live in their own bitset,
+ * all indexed r * stride + c with stride = cols + 1. Box b's sides are then
+ * H[b] (top), H[b + stride] (bottom), V[b] (left) and V[b + 1] (right), so a
+ * whole-board question such as "which boxes have three sides" is two shifts
+ * and a few ANDs per 64 boxes.
+ */
+final class EdgeBits {
+    private static final ConcurrentHashMap<Long, long[]> BOX_MASKS = new ConcurrentHashMap<Long, long[]>();
+
+    private EdgeBits() {}
+
+    /** Words for the edge and box bitsets of a rows x cols board (the H set is the largest). */
+    static int words(int rows, int cols) { return ((rows + 1) * (cols + 1) + 63) >>> 6; }
+
+    static boolean get(long[] s, int i) { return (s[i >>> 6] & (1L << i)) != 0; }
+    static void set(long[] s, int i) { s[i >>> 6] |= 1L << i; }
+
+    /** Bits of the real boxes (the column c = cols is padding). Shared: do not modify. */
+    static long[] boxMask(int rows, int cols) {
+        return BOX_MASKS.computeIfAbsent(((long) rows << 32) | cols, k -> {
+            long[] m = new long[words(rows, cols)];
+            for (int r = 0; r < rows; r++)
+                for (int c = 0; c < cols; c++) set(m, r * (cols + 1) + c);
+            return m;
+        });
+    }
+
+    /** Word i of src shifted down by k bits (bit j of the result is bit j + k of src). */
+    static long shifted(long[] src, int i, int k) {
+        int w = i + (k >>> 6), b = k & 63;
+        long lo = w < src.length ? src[w] >>> b : 0;
+        if (b == 0 || w + 1 >= src.length) return lo;
+        return lo | src[w + 1] << (64 - b);
+    }
+
+    /** Boxes with exactly three sides claimed: the next edge around them scores. */
+    static long[] threeSided(DotsState s) {
+        long[] mask = boxMask(s.rows, s.cols), out = new long[mask.length];
+        for (int i = 0; i < out.length; i++) {
+            long top = s.H[i], bottom = shifted(s.H, i, s.stride), left = s.V[i], right = shifted(s.V, i, 1);
+            // two of {top, bottom} and exactly one of {left, right}, or the other way round
+            out[i] = (top & bottom & (left ^ right) | left & right & (top ^ bottom)) & mask[i];
+        }
+        return out;
+    }
+
+    /** Boxes with all four sides claimed. */
+    static long[] closed(DotsState s) {
+        long[] mask = boxMask(s.rows, s.cols), out = new long[mask.length];
+        for (int i = 0; i < out.length; i++)
+            out[i] = s.H[i] & shifted(s.H, i, s.stride) & s.V[i] & shifted(s.V, i, 1) & mask[i];
+        return out;
+    }
+}
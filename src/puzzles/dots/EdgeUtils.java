@@ -19,11 +19,12 @@ final class EdgeUtils {
     /** List unclaimed edges; if criticalOnly, include only edges that would close a box. */
     static List<EdgeRow> listAvailable(DotsState s, boolean criticalOnly) {
         List<EdgeRow> out = new ArrayList<EdgeRow>();
+        long[] three = EdgeBits.threeSided(s);    // one whole-board pass instead of per-edge side checks
         // H edges: r in [0..rows], c in [0..cols-1]
         for (int r=0; r<=s.rows; r++) {
             for (int c=0; c<s.cols; c++) {
-                if (s.H[r][c]) continue;
-                boolean crit = wouldCloseBoxH(s, r, c);
+                if (s.hasH(r, c)) continue;
+                boolean crit = wouldCloseBoxH(s, three, r, c);
                 if (criticalOnly && !crit) continue;
                 out.add(new EdgeRow(Orientation.H, r, c, "H " + r + " " + c, crit));
             }
@@ -31,8 +32,8 @@ final class EdgeUtils {
         // V edges: r in [0..rows-1], c in [0..cols]
         for (int r=0; r<s.rows; r++) {
             for (int c=0; c<=s.cols; c++) {
-                if (s.V[r][c]) continue;
-                boolean crit = wouldCloseBoxV(s, r, c);
+                if (s.hasV(r, c)) continue;
+                boolean crit = wouldCloseBoxV(s, three, r, c);
                 if (criticalOnly && !crit) continue;
                 out.add(new EdgeRow(Orientation.V, r, c, "V " + r + " " + c, crit));
             }
@@ -40,6 +41,19 @@ final class EdgeUtils {
         return out;
     }
 
+    /** Only the edges that close a box, straight from the index: O(answer), no board scan. */
+    static List<EdgeRow> listCritical(DotsBoard b, ChainIndex chains) {
+        int[] ids = new int[chains.criticalCount()];
+        for (int i = 0; i < ids.length; i++) ids[i] = chains.critical(i);
+        java.util.Arrays.sort(ids);                  // same H-then-V order as listAvailable
+        List<EdgeRow> out = new ArrayList<EdgeRow>(ids.length);
+        for (int e : ids) {
+            EdgePos p = b.pos(e);
+            out.add(new EdgeRow(p.o, p.r, p.c, p.o + " " + p.r + " " + p.c, true));
+        }
+        return out;
+    }
+
     /** Optional small filter by row/col index for convenience. */
     static List<EdgeRow> filterByRowCol(List<EdgeRow> rows, String which, int k) {
         List<EdgeRow> out = new ArrayList<EdgeRow>();
@@ -54,15 +68,14 @@ final class EdgeUtils {
     }
 
     // ---------- internals: does this edge complete a box? ----------
+    // an unclaimed edge closes a box exactly when that box already has three sides
 
-    private static boolean wouldCloseBoxH(DotsState s, int r, int c) {
-        if (r-1 >= 0) { if (s.H[r-1][c] && s.V[r-1][c] && s.V[r-1][c+1]) return true; }
-        if (r < s.rows) { if (s.H[r+1][c] && s.V[r][c] && s.V[r][c+1]) return true; }
-        return false;
+    private static boolean wouldCloseBoxH(DotsState s, long[] three, int r, int c) {
+        int b = r * s.stride + c;
+        return (r-1 >= 0 && EdgeBits.get(three, b - s.stride)) || (r < s.rows && EdgeBits.get(three, b));
     }
-    private static boolean wouldCloseBoxV(DotsState s, int r, int c) {
-        if (c-1 >= 0) { if (s.V[r][c-1] && s.H[r][c-1] && s.H[r+1][c-1]) return true; }
-        if (c < s.cols) { if (s.V[r][c+1] && s.H[r][c] && s.H[r+1][c]) return true; }
-        return false;
+    private static boolean wouldCloseBoxV(DotsState s, long[] three, int r, int c) {
+        int b = r * s.stride + c;
+        return (c-1 >= 0 && EdgeBits.get(three, b - 1)) || (c < s.cols && EdgeBits.get(three, b));
     }
 }
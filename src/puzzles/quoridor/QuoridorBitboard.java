@@ -0,0 +1,155 @@
+package puzzles.quoridor;
+
+import game.core.Position;
+
+import java.util.Arrays;
+
+/**
+ * Cells as bits (bit r*cols + c) in a long[]: 9x9 fits in two longs, larger
+ * boards take more words. Walls become four move masks, the cells that may
+ * step up, down, left or right, so one flood step moves a whole frontier:
+ * shift by cols for up/down and by 1 for left/right, after masking. The masks
+ * exclude the board edges, so nothing wraps into the next row or off the board.
+ * Pawns are not obstacles, as in {@link QuoridorPaths}. Not thread-safe (scratch arrays).
+ */
+final class QuoridorBitboard {
+    private final int rows, cols, words;
+    private final long[] up, down, left, right;     // movers each way, walls applied
+    private final long[] goalTop, goalBottom;       // row 0, row rows-1
+    // scratch
+    private final long[] mUp, mDown, mLeft, mRight, seen, front, next, tmp;
+
+    QuoridorBitboard(QuoridorState s) {
+        this.rows = s.rows; this.cols = s.cols;
+        this.words = (rows * cols + 63) >>> 6;
+        up = new long[words]; down = new long[words]; left = new long[words]; right = new long[words];
+        goalTop = new long[words]; goalBottom = new long[words];
+        mUp = new long[words]; mDown = new long[words]; mLeft = new long[words]; mRight = new long[words];
+        seen = new long[words]; front = new long[words]; next = new long[words]; tmp = new long[words];
+        for (int r = 0; r < rows; r++) for (int c = 0; c < cols; c++) {
+            int i = r * cols + c;
+            if (r > 0 && !s.h[r - 1][c])        set(up, i);
+            if (r < rows - 1 && !s.h[r][c])     set(down, i);
+            if (c > 0 && !s.v[r][c - 1])        set(left, i);
+            if (c < cols - 1 && !s.v[r][c])     set(right, i);
+        }
+        for (int c = 0; c < cols; c++) { set(goalTop, c); set(goalBottom, (rows - 1) * cols + c); }
+    }
+
+    /** True if goalRow (0 or rows-1) can be reached from the cell; wall may be null or a wall not placed yet. */
+    boolean reaches(Position from, int goalRow, QuoridorAction wall) {
+        return distance(from, goalRow, wall) >= 0;
+    }
+
+    /** Fewest steps from the cell to goalRow (0 or rows-1), or -1 if cut off. */
+    int distance(Position from, int goalRow, QuoridorAction wall) {
+        long[] goal = goalMask(goalRow);
+        masks(wall);
+        Arrays.fill(seen, 0);
+        set(seen, from.r * cols + from.c);
+        System.arraycopy(seen, 0, front, 0, words);
+        for (int d = 0; ; d++) {
+            if (intersects(front, goal)) return d;
+            if (!expand()) return -1;
+        }
+    }
+
+    /**
+     * Distance layers from goalRow: result[k] holds the cells exactly k steps
+     * from it (walls apply both ways, so this is also the distance to it).
+     * Cells that cannot reach goalRow are in no layer.
+     */
+    long[][] layers(int goalRow, QuoridorAction wall) {
+        masks(wall);
+        long[] goal = goalMask(goalRow);
+        System.arraycopy(goal, 0, seen, 0, words);
+        System.arraycopy(goal, 0, front, 0, words);
+        long[][] out = new long[rows * cols][];
+        int n = 0;
+        do out[n++] = front.clone(); while (expand());
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Steps from every cell (index r*cols + c) to goalRow, -1 where cut off. */
+    int[] distances(int goalRow, QuoridorAction wall) {
+        int[] dist = new int[rows * cols];
+        Arrays.fill(dist, -1);
+        long[][] layers = layers(goalRow, wall);
+        for (int d = 0; d < layers.length; d++)
+            for (int w = 0; w < words; w++)
+                for (long bits = layers[d][w]; bits != 0; bits &= bits - 1)
+                    dist[(w << 6) + Long.numberOfTrailingZeros(bits)] = d;
+        return dist;
+    }
+
+    private long[] goalMask(int goalRow) {
+        if (goalRow == 0) return goalTop;
+        if (goalRow == rows - 1) return goalBottom;
+        throw new IllegalArgumentException("goal row must be 0 or " + (rows - 1));
+    }
+
+    /** One flood step: front becomes the cells first reached now; false if there are none. */
+    private boolean expand() {
+        Arrays.fill(next, 0);
+        step(mUp, -cols); step(mDown, cols); step(mLeft, -1); step(mRight, 1);
+        boolean any = false;
+        for (int w = 0; w < words; w++) {
+            long fresh = next[w] & ~seen[w];
+            front[w] = fresh;
+            seen[w] |= fresh;
+            any |= fresh != 0;
+        }
+        return any;
+    }
+
+    /** next |= (front & movers) moved by delta bits. */
+    private void step(long[] movers, int delta) {
+        for (int w = 0; w < words; w++) tmp[w] = front[w] & movers[w];
+        if (delta > 0) orShiftUp(tmp, delta, next); else orShiftDown(tmp, -delta, next);
+    }
+
+    /** dst |= src << k over the whole array (towards higher bit indexes). */
+    private void orShiftUp(long[] src, int k, long[] dst) {
+        int ws = k >>> 6, bs = k & 63;
+        for (int w = words - 1; w >= ws; w--) {
+            long v = src[w - ws] << bs;
+            if (bs != 0 && w - ws - 1 >= 0) v |= src[w - ws - 1] >>> (64 - bs);
+            dst[w] |= v;
+        }
+    }
+
+    /** dst |= src >>> k over the whole array (towards lower bit indexes). */
+    private void orShiftDown(long[] src, int k, long[] dst) {
+        int ws = k >>> 6, bs = k & 63;
+        for (int w = 0; w + ws < words; w++) {
+            long v = src[w + ws] >>> bs;
+            if (bs != 0 && w + ws + 1 < words) v |= src[w + ws + 1] << (64 - bs);
+            dst[w] |= v;
+        }
+    }
+
+    /** Scratch move masks: the placed walls plus the pending one. */
+    private void masks(QuoridorAction wall) {
+        System.arraycopy(up, 0, mUp, 0, words);
+        System.arraycopy(down, 0, mDown, 0, words);
+        System.arraycopy(left, 0, mLeft, 0, words);
+        System.arraycopy(right, 0, mRight, 0, words);
+        if (wall == null) return;
+        int a = wall.r * cols + wall.c;
+        if (wall.type == QuoridorAction.Type.WALL_H) {          // below row r, columns c and c+1
+            clear(mDown, a); clear(mDown, a + 1);
+            clear(mUp, a + cols); clear(mUp, a + cols + 1);
+        } else if (wall.type == QuoridorAction.Type.WALL_V) {   // right of column c, rows r and r+1
+            clear(mRight, a); clear(mRight, a + cols);
+            clear(mLeft, a + 1); clear(mLeft, a + cols + 1);
+        }
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) if ((a[w] & b[w]) != 0) return true;
+        return false;
+    }
+
+    private static void set(long[] bits, int i)   { bits[i >>> 6] |= 1L << i; }
+    private static void clear(long[] bits, int i) { bits[i >>> 6] &= ~(1L << i); }
+}
@@ -0,0 +1,79 @@
+package puzzles.quoridor;
+
+import java.util.Arrays;
+
+/**
+ * Shortest paths to a goal row over the state's wall arrays, with an optional
+ * wall that is not placed yet, so legality checks need no copy of the state.
+ * Cells are numbered r*cols + c; pawns are not obstacles (as in the rules).
+ */
+final class QuoridorPaths {
+    private QuoridorPaths() {}
+
+    /**
+     * Cells from start to the first cell reached on goalRow, or null if the
+     * row cannot be reached. wall may be null; otherwise it is treated as placed.
+     */
+    static int[] shortest(QuoridorState s, int start, int goalRow, QuoridorAction wall) {
+        int cols = s.cols, n = s.rows * cols;
+        int[] parent = new int[n], queue = new int[n];
+        Arrays.fill(parent, -1);
+        parent[start] = start;
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int x = queue[head++], r = x / cols, c = x % cols;
+            if (r == goalRow) return trace(parent, start, x);
+            // towards the goal first: ties then end on a straighter path
+            int dr = goalRow > r ? 1 : -1;
+            if (r + dr >= 0 && r + dr < s.rows && openV(s, Math.min(r, r + dr), c, wall)) tail = visit(parent, queue, tail, x, x + dr * cols);
+            if (c > 0 && openH(s, r, c - 1, wall))                                         tail = visit(parent, queue, tail, x, x - 1);
+            if (c < cols - 1 && openH(s, r, c, wall))                                      tail = visit(parent, queue, tail, x, x + 1);
+            if (r - dr >= 0 && r - dr < s.rows && openV(s, Math.min(r, r - dr), c, wall)) tail = visit(parent, queue, tail, x, x - dr * cols);
+        }
+        return null;
+    }
+
+    private static int visit(int[] parent, int[] queue, int tail, int from, int to) {
+        if (parent[to] >= 0) return tail;
+        parent[to] = from;
+        queue[tail] = to;
+        return tail + 1;
+    }
+
+    private static int[] trace(int[] parent, int start, int end) {
+        int len = 1;
+        for (int x = end; x != start; x = parent[x]) len++;
+        int[] path = new int[len];
+        for (int x = end, i = len - 1; i >= 0; x = parent[x], i--) path[i] = x;
+        return path;
+    }
+
+    /** Step between (r,c) and (r+1,c): no wall in h[r][c], placed or pending. */
+    private static boolean openV(QuoridorState s, int r, int c, QuoridorAction wall) {
+        return !s.h[r][c] && !cutsV(wall, r, c);
+    }
+
+    /** Step between (r,c) and (r,c+1). */
+    private static boolean openH(QuoridorState s, int r, int c, QuoridorAction wall) {
+        return !s.v[r][c] && !cutsH(wall, r, c);
+    }
+
+    private static boolean cutsV(QuoridorAction w, int r, int c) {
+        return w != null && w.type == QuoridorAction.Type.WALL_H && w.r == r && (c == w.c || c == w.c + 1);
+    }
+
+    private static boolean cutsH(QuoridorAction w, int r, int c) {
+        return w != null && w.type == QuoridorAction.Type.WALL_V && w.c == c && (r == w.r || r == w.r + 1);
+    }
+
+    /** True if the wall cuts a step of the path. */
+    static boolean crosses(int cols, int[] path, QuoridorAction wall) {
+        for (int i = 1; i < path.length; i++) {
+            int a = Math.min(path[i - 1], path[i]), b = Math.max(path[i - 1], path[i]);
+            int r = a / cols, c = a % cols;
+            if (b - a == 1 ? cutsH(wall, r, c) : cutsV(wall, r, c)) return true;
+        }
+        return false;
+    }
+}
@@ -3,7 +3,7 @@ package puzzles.quoridor;
 import game.core.Position;
 import game.core.Rules;
 
-import java.util.ArrayDeque;
+import java.util.Arrays;
 
 public final class QuoridorRules implements Rules<QuoridorState, QuoridorAction> {
 
@@ -25,9 +25,11 @@ public final class QuoridorRules implements Rules<QuoridorState, QuoridorAction>
                 boolean wasJump = isJump(s, s.currentPawn(), s.otherPawn(), a.to);
                 if (n.turn == 1) {
                     n.p1 = a.to;
+                    n.path1 = advance(n.path1, a.to, n.cols);
                     if (wasJump) n.jumps1++;
                 } else {
                     n.p2 = a.to;
+                    n.path2 = advance(n.path2, a.to, n.cols);
                     if (wasJump) n.jumps2++;
                 }
                 n.placePawnPieces();
@@ -37,16 +39,22 @@ public final class QuoridorRules implements Rules<QuoridorState, QuoridorAction>
             case WALL_H: {
                 n.h[a.r][a.c] = true;
                 n.h[a.r][a.c + 1] = true;
+                n.cutEdge(a.r, a.c, a.r + 1, a.c);
+                n.cutEdge(a.r, a.c + 1, a.r + 1, a.c + 1);
                 if (n.turn == 1) { n.walls1--; n.wallsPlaced1++; } else { n.walls2--; n.wallsPlaced2++; }
-                n.rebuildGraphNeighbors();
+                n.bits = null;
+                keepUncutPaths(n, a);
                 n.turn = 3 - n.turn;
                 break;
             }
             case WALL_V: {
                 n.v[a.r][a.c] = true;
                 n.v[a.r + 1][a.c] = true;
+                n.cutEdge(a.r, a.c, a.r, a.c + 1);
+                n.cutEdge(a.r + 1, a.c, a.r + 1, a.c + 1);
                 if (n.turn == 1) { n.walls1--; n.wallsPlaced1++; } else { n.walls2--; n.wallsPlaced2++; }
-                n.rebuildGraphNeighbors();
+                n.bits = null;
+                keepUncutPaths(n, a);
                 n.turn = 3 - n.turn;
                 break;
             }
@@ -70,11 +78,7 @@ public final class QuoridorRules implements Rules<QuoridorState, QuoridorAction>
                 if (s.h[a.r][a.c] || s.h[a.r][a.c+1]) return "Overlap H";
                 // disallow crossing: needs both v segments occupied to be crossing at the center
                 if (s.v[a.r][a.c] && s.v[a.r+1][a.c]) return "Crossing vertical";
-                QuoridorState sim = s.copy();
-                sim.h[a.r][a.c]=true; sim.h[a.r][a.c+1]=true; sim.rebuildGraphNeighbors();
-                if (!hasPath(sim, sim.p1, sim.rows-1)) return "Blocks P1 path";
-                if (!hasPath(sim, sim.p2, 0))          return "Blocks P2 path";
-                return null;
+                return blocksPath(s, a);
             }
 
             case WALL_V: {
@@ -82,11 +86,7 @@ public final class QuoridorRules implements Rules<QuoridorState, QuoridorAction>
                 if (a.r<0 || a.r>=s.rows-1 || a.c<0 || a.c>=s.cols-1) return "Anchor OOB";
                 if (s.v[a.r][a.c] || s.v[a.r+1][a.c]) return "Overlap V";
                 if (s.h[a.r][a.c] && s.h[a.r][a.c+1]) return "Crossing horizontal";
-                QuoridorState sim = s.copy();
-                sim.v[a.r][a.c]=true; sim.v[a.r+1][a.c]=true; sim.rebuildGraphNeighbors();
-                if (!hasPath(sim, sim.p1, sim.rows-1)) return "Blocks P1 path";
-                if (!hasPath(sim, sim.p2, 0))          return "Blocks P2 path";
-                return null;
+                return blocksPath(s, a);
             }
         }
         return "Unknown";
@@ -165,18 +165,33 @@ public final class QuoridorRules implements Rules<QuoridorState, QuoridorAction>
         return false;
     }
 
-    /** BFS reachability from start to a goal row (top/bottom). */
-    private boolean hasPath(QuoridorState s, Position start, int goalRow) {
-        boolean[][] vis = new boolean[s.rows][s.cols];
-        ArrayDeque<Position> dq = new ArrayDeque<Position>();
-        dq.add(start); vis[start.r][start.c]=true;
-        while (!dq.isEmpty()) {
-            Position p = dq.poll();
-            if (p.r == goalRow) return true;
-            for (Position n : s.lattice[p.r][p.c].neighbors()) {
-                if (!vis[n.r][n.c]) { vis[n.r][n.c]=true; dq.add(n); }
-            }
-        }
-        return false;
+    /**
+     * Error if the (otherwise legal) wall cuts a pawn off from its goal row.
+     * Walls only remove steps, so a wall that misses a pawn's cached shortest
+     * path leaves it reachable and needs no search; otherwise one bit-parallel
+     * flood fill with the wall pending. The state is not copied or changed, apart from the cache.
+     */
+    private String blocksPath(QuoridorState s, QuoridorAction a) {
+        if (cutOff(s, 1, s.rows - 1, a)) return "Blocks P1 path";
+        if (cutOff(s, 2, 0, a))          return "Blocks P2 path";
+        return null;
+    }
+
+    private boolean cutOff(QuoridorState s, int player, int goalRow, QuoridorAction a) {
+        int[] path = s.path(player);
+        if (path != null && !QuoridorPaths.crosses(s.cols, path, a)) return false;
+        return !s.bits().reaches(player == 1 ? s.p1 : s.p2, goalRow, a);
+    }
+
+    /** After a wall: cached paths it cuts are dropped, the rest stay shortest. */
+    private static void keepUncutPaths(QuoridorState n, QuoridorAction a) {
+        if (n.path1 != null && QuoridorPaths.crosses(n.cols, n.path1, a)) n.path1 = null;
+        if (n.path2 != null && QuoridorPaths.crosses(n.cols, n.path2, a)) n.path2 = null;
+    }
+
+    /** After a pawn move: if it stepped along its cached path, the rest of that path is still shortest. */
+    private static int[] advance(int[] path, Position to, int cols) {
+        return path != null && path.length > 1 && path[1] == to.r * cols + to.c
+                ? Arrays.copyOfRange(path, 1, path.length) : path;
     }
 }
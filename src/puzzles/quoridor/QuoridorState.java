@@ -38,6 +38,12 @@ public final class QuoridorState implements Board<Piece> {
     // Graph for path checks & hints
     public final Tile[][] lattice;
 
+    // Shortest path of each pawn to its goal row (cells r*cols+c, pawn first), null until needed.
+    // Carried into the next state by QuoridorRules.apply while still valid.
+    int[] path1, path2;
+    // Walls as bit masks for flood-fill reachability, null until needed; shared while the walls are unchanged.
+    QuoridorBitboard bits;
+
     public QuoridorState() { this(9, 9); }
     public QuoridorState(int rows, int cols) {
         if (rows < 3 || cols < 3) throw new IllegalArgumentException("Minimum 3x3");
@@ -56,16 +62,22 @@ public final class QuoridorState implements Board<Piece> {
         this.walls1 = base;
         this.walls2 = base;
 
-        initLatticeFresh();
+        buildLattice();
         placePawnPieces();
-        rebuildGraphNeighbors();
     }
 
     private void initLatticeFresh() {
         for (int r=0;r<rows;r++) for (int c=0;c<cols;c++)
             lattice[r][c] = new Tile(0, new Position(r,c));
     }
+    /** Rebuild the lattice from h/v; also call this after changing h/v directly (drops cached paths). */
     public void rebuildGraphNeighbors() {
+        path1 = null; path2 = null; bits = null;
+        buildLattice();
+    }
+
+    /** Fresh lattice with an edge wherever no wall separates two cells; caches untouched. */
+    private void buildLattice() {
         initLatticeFresh();
         for (int r=0;r<rows;r++) for (int c=0;c<cols;c++) {
             if (r>0       && !h[r-1][c]) lattice[r][c].addEdge(new Position(r-1,c));
@@ -85,21 +97,55 @@ public final class QuoridorState implements Board<Piece> {
         return String.valueOf(Character.toUpperCase(s.trim().charAt(0)));
     }
 
-    public QuoridorState copy() {
-        QuoridorState s = new QuoridorState(rows, cols);
-        for (int r=0;r<Math.max(0, rows-1);r++) s.h[r] = Arrays.copyOf(h[r], cols);
-        for (int r=0;r<rows;r++)                s.v[r] = Arrays.copyOf(v[r], Math.max(0, cols-1));
-        s.p1 = new Position(p1.r, p1.c);
-        s.p2 = new Position(p2.r, p2.c);
-        s.walls1 = walls1; s.walls2 = walls2;
-        s.turn = turn;
-        s.name1 = name1; s.name2 = name2;
-        s.moveCount = moveCount;
-        s.wallsPlaced1 = wallsPlaced1; s.wallsPlaced2 = wallsPlaced2;
-        s.jumps1 = jumps1; s.jumps2 = jumps2;
-        s.rebuildGraphNeighbors();
-        s.placePawnPieces();
-        return s;
+    /** Copy constructor: the lattice is built once, from the copied walls. */
+    private QuoridorState(QuoridorState o) {
+        this.rows = o.rows; this.cols = o.cols;
+        this.cells = new Piece[rows][cols];
+        this.h = new boolean[o.h.length][];
+        this.v = new boolean[o.v.length][];
+        for (int r=0;r<h.length;r++) h[r] = o.h[r].clone();
+        for (int r=0;r<v.length;r++) v[r] = o.v[r].clone();
+        this.lattice = new Tile[rows][cols];
+        this.p1 = o.p1; this.p2 = o.p2;             // Position is immutable
+        this.walls1 = o.walls1; this.walls2 = o.walls2;
+        this.turn = o.turn;
+        this.name1 = o.name1; this.name2 = o.name2;
+        this.moveCount = o.moveCount;
+        this.wallsPlaced1 = o.wallsPlaced1; this.wallsPlaced2 = o.wallsPlaced2;
+        this.jumps1 = o.jumps1; this.jumps2 = o.jumps2;
+        buildLattice();
+        placePawnPieces();
+        // caches after the lattice: rebuildGraphNeighbors() would drop them
+        this.path1 = o.path1; this.path2 = o.path2;  // never modified in place
+        this.bits = o.bits;                          // shared until apply adds a wall
+    }
+
+    public QuoridorState copy() { return new QuoridorState(this); }
+
+    /** Remove the lattice edge between two adjacent cells (both directions), after a wall is set. */
+    void cutEdge(int r1, int c1, int r2, int c2) {
+        lattice[r1][c1].removeEdge(new Position(r2, c2));
+        lattice[r2][c2].removeEdge(new Position(r1, c1));
+    }
+
+    /** Bitboard of the current walls, built on first use. */
+    QuoridorBitboard bits() {
+        if (bits == null) bits = new QuoridorBitboard(this);
+        return bits;
+    }
+
+    /**
+     * Cached shortest path of player 1 or 2 to the goal row, or null if there is
+     * none. Recomputed when the pawn is no longer at its start.
+     */
+    int[] path(int player) {
+        Position p = player == 1 ? p1 : p2;
+        int[] cached = player == 1 ? path1 : path2;
+        int at = p.r * cols + p.c;
+        if (cached != null && cached[0] == at) return cached;
+        int[] path = QuoridorPaths.shortest(this, at, player == 1 ? rows - 1 : 0, null);
+        if (player == 1) path1 = path; else path2 = path;
+        return path;
     }
 
     // Board<Piece>
@@ -0,0 +1,279 @@
+/**
+ * Project: Game Hub
+ * File: AnytimeSolver.java
+ * Purpose: Best solution within a time budget: reduction seed, then restarting weighted A*.
+ */
+package puzzles.sliding;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * The reduction solver supplies a first solution almost immediately. Weighted
+ * A* runs (f = g + w*h, w falling from 10 to 1) then look for shorter ones,
+ * each restarting from scratch and pruning any node whose admissible g + h
+ * cannot beat the best length so far. Duplicates are caught with Zobrist keys
+ * and reopened when reached more cheaply, so at any moment the smallest g + h
+ * on the open list is a lower bound on the optimum; best / bound is the
+ * suboptimality reported with each solution. The deadline is checked every
+ * 256 expansions and the node pool is capped at {@link #MAX_BYTES}.
+ * Not thread-safe: use one solver per thread.
+ */
+public final class AnytimeSolver implements SlidingSolver {
+    private static final int[] WEIGHTS = { 1000, 500, 300, 200, 150, 125, 100 };   // w x 100
+    /** Memory cap for one weighted A* run. */
+    public static final long MAX_BYTES = 64L << 20;
+    private static final int MAX_CELLS = 256;          // boards are stored one byte per cell
+    private static final int ABORTED = -1, EXHAUSTED = 0;
+
+    private final Heuristic.Factory factory;
+    private final long budgetNanos;
+    private final ReductionSolver seed = new ReductionSolver();
+
+    // per-shape caches
+    private int rows = -1, cols = -1, n;
+    private Heuristic heuristic;
+    private int[] nbr;
+    private long[] zobrist;              // [tile * n + cell]
+    private int[] tiles, pos;
+    private int maxNodes;
+
+    // node pool: board, parent, tile slid to reach it, g, h, Zobrist key
+    private byte[] boards;
+    private int[] parent, moved, g, h;
+    private long[] key;
+    private int size;
+    // key -> node, open addressing; 0 is the empty key
+    private long[] mapKeys;
+    private int[] mapNodes;
+    // open list: binary min-heap of f << 32 | node
+    private long[] heap;
+    private int heapSize;
+
+    private int goalParent, goalTile;
+    private long expanded, deadline;
+
+    public AnytimeSolver(long budgetMillis) { this(PatternDatabases.factory(), budgetMillis); }
+    public AnytimeSolver(Heuristic.Factory factory, long budgetMillis) {
+        this.factory = factory; this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    /** Best solution found within the solver's budget. */
+    @Override public SolveResult solve(SlidingState s) {
+        return solve(s, System.nanoTime() + budgetNanos, null);
+    }
+
+    /**
+     * Best solution found before the deadline (System.nanoTime()).
+     * @param onImproved called with the seed and each shorter solution as it is found; may be null
+     * @return null only if the board is unsolvable
+     */
+    public SolveResult solve(SlidingState s, long deadlineNanos, Consumer<SolveResult> onImproved) {
+        return solve(s, deadlineNanos, onImproved, null, 0);
+    }
+
+    /**
+     * As {@link #solve(SlidingState, long, Consumer)}, starting from what is already known.
+     * @param incumbent a solution of s to improve on instead of the reduction solver's; may be null
+     * @param lowerBound at most the optimal length (0 if unknown)
+     */
+    public SolveResult solve(SlidingState s, long deadlineNanos, Consumer<SolveResult> onImproved,
+                             int[] incumbent, int lowerBound) {
+        long t0 = System.nanoTime();
+        prepare(s.board.rows(), s.board.cols());
+        s.packed().copyTo(tiles, pos);
+        if (!SolverUtils.isSolvable(tiles, rows, cols)) return null;
+        deadline = deadlineNanos;
+        expanded = 0;
+
+        int h0 = heuristic.reset(tiles, pos);
+        if (h0 == 0) return new SolveResult(new int[0], true, 0, System.nanoTime() - t0);
+        int lower = Math.max(h0, lowerBound);
+        int[] best = incumbent != null ? incumbent.clone() : seed.solve(s).moves;
+        report(onImproved, best, lower, t0);
+        if (n > MAX_CELLS) return result(best, lower, t0);
+
+        long root = rootKey();
+        int[] start = tiles.clone();
+        for (int w : WEIGHTS) {
+            if (System.nanoTime() >= deadline || lower >= best.length) break;
+            System.arraycopy(start, 0, tiles, 0, n);
+            for (int c = 0; c < n; c++) pos[tiles[c]] = c;
+            int found = run(w, h0, root, best.length);
+            if (found > 0) best = path(goalParent, goalTile);
+            int bound = found == EXHAUSTED ? best.length : Math.min(best.length, minOpen());
+            lower = Math.max(lower, bound);
+            if (found > 0) report(onImproved, best, lower, t0);
+            if (found == ABORTED) break;
+        }
+        return result(best, lower, t0);
+    }
+
+    private SolveResult result(int[] best, int lower, long t0) {
+        return new SolveResult(best, lower >= best.length, expanded, System.nanoTime() - t0, lower);
+    }
+
+    private void report(Consumer<SolveResult> onImproved, int[] moves, int lower, long t0) {
+        if (onImproved != null) onImproved.accept(result(moves, lower, t0));
+    }
+
+    /**
+     * One weighted A* run from the board in tiles/pos, looking for anything shorter than limit.
+     * @return the new length, EXHAUSTED if nothing shorter exists, ABORTED on deadline or memory cap.
+     *         A node left part-expanded goes back on the open list, so {@link #minOpen} still covers it.
+     */
+    private int run(int w, int h0, long rootKey, int limit) {
+        size = 0; heapSize = 0;
+        Arrays.fill(mapKeys, 0L);
+        push(add(rootKey, -1, 0, 0, h0), w);
+        while (heapSize > 0) {
+            if ((++expanded & 255) == 0 && System.nanoTime() >= deadline) return ABORTED;
+            long top = pop();
+            int node = (int) top, ng = g[node] + 1;
+            if (top >>> 32 != f(node, w) || g[node] + h[node] >= limit) continue;   // stale or pruned
+            load(node);
+            heuristic.reset(tiles, pos);
+            int blank = pos[0];
+            for (int k = blank << 2, end = k + 4; k < end; k++) {
+                int nb = nbr[k];
+                if (nb < 0) continue;
+                int t = tiles[nb];
+                tiles[blank] = t; tiles[nb] = 0; pos[t] = blank; pos[0] = nb;
+                int nh = heuristic.moved(tiles, pos, t, nb, blank);
+                int status = 1;
+                if (ng + nh < limit) {
+                    if (nh == 0) { goalParent = node; goalTile = t; push(node, w); return ng; }
+                    status = offer(key[node] ^ zobrist[t * n + nb] ^ zobrist[t * n + blank], node, t, ng, nh, w);
+                }
+                tiles[nb] = t; tiles[blank] = 0; pos[t] = nb; pos[0] = blank;
+                heuristic.moved(tiles, pos, t, blank, nb);
+                if (status < 0) { push(node, w); return ABORTED; }
+            }
+        }
+        return EXHAUSTED;
+    }
+
+    /** Add or improve the successor with key k. @return -1 if the pool is full */
+    private int offer(long k, int from, int tile, int ng, int nh, int w) {
+        int slot = slot(k), node = mapKeys[slot] == k ? mapNodes[slot] : -1;
+        if (node >= 0) {
+            if (ng >= g[node]) return 0;
+            g[node] = ng; parent[node] = from; moved[node] = tile;
+            push(node, w);
+            return 1;
+        }
+        if (size == maxNodes) return -1;
+        push(add(k, from, tile, ng, nh), w);
+        return 1;
+    }
+
+    /** Store the board in tiles as a new node. */
+    private int add(long k, int from, int tile, int ng, int nh) {
+        if (size == parent.length) grow();
+        int node = size++;
+        for (int c = 0, o = node * n; c < n; c++) boards[o + c] = (byte) tiles[c];
+        parent[node] = from; moved[node] = tile; g[node] = ng; h[node] = nh; key[node] = k;
+        int slot = slot(k);
+        mapKeys[slot] = k; mapNodes[slot] = node;
+        return node;
+    }
+
+    private void load(int node) {
+        for (int c = 0, o = node * n; c < n; c++) { int t = boards[o + c] & 0xFF; tiles[c] = t; pos[t] = c; }
+    }
+
+    private int[] path(int last, int tile) {
+        int[] moves = new int[g[last] + 1];
+        moves[g[last]] = tile;
+        for (int node = last; parent[node] >= 0; node = parent[node]) moves[g[node] - 1] = moved[node];
+        return moves;
+    }
+
+    /** Smallest admissible g + h still open: no solution is shorter. */
+    private int minOpen() {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < heapSize; i++) { int node = (int) heap[i]; min = Math.min(min, g[node] + h[node]); }
+        return min;
+    }
+
+    private long f(int node, int w) { return 100L * g[node] + (long) w * h[node]; }
+
+    private void push(int node, int w) {
+        if (heapSize == heap.length) heap = Arrays.copyOf(heap, heap.length * 2);
+        long e = f(node, w) << 32 | node;
+        int i = heapSize++;
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            if (heap[p] <= e) break;
+            heap[i] = heap[p]; i = p;
+        }
+        heap[i] = e;
+    }
+
+    private long pop() {
+        long top = heap[0], e = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= heapSize) break;
+            if (c + 1 < heapSize && heap[c + 1] < heap[c]) c++;
+            if (heap[c] >= e) break;
+            heap[i] = heap[c]; i = c;
+        }
+        heap[i] = e;
+        return top;
+    }
+
+    private int slot(long k) {
+        int mask = mapKeys.length - 1;
+        int i = (int) (k ^ (k >>> 32)) & mask;
+        while (mapKeys[i] != 0 && mapKeys[i] != k) i = (i + 1) & mask;
+        return i;
+    }
+
+    private long rootKey() {
+        long k = 0;
+        for (int c = 0; c < n; c++) if (tiles[c] != 0) k ^= zobrist[tiles[c] * n + c];
+        return k;
+    }
+
+    /** Double the pool and rebuild the map at the new capacity. */
+    private void grow() {
+        int cap = parent.length * 2;
+        boards = Arrays.copyOf(boards, cap * n);
+        parent = Arrays.copyOf(parent, cap); moved = Arrays.copyOf(moved, cap);
+        g = Arrays.copyOf(g, cap); h = Arrays.copyOf(h, cap); key = Arrays.copyOf(key, cap);
+        mapKeys = new long[cap * 2]; mapNodes = new int[cap * 2];
+        for (int node = 0; node < size; node++) {
+            int slot = slot(key[node]);
+            mapKeys[slot] = key[node]; mapNodes[slot] = node;
+        }
+    }
+
+    private void prepare(int r, int c) {
+        if (r == rows && c == cols) return;
+        rows = r; cols = c; n = r * c;
+        heuristic = factory.create(r, c);
+        tiles = new int[n]; pos = new int[n];
+        nbr = new int[n * 4];
+        for (int cell = 0; cell < n; cell++) {
+            int cr = cell / c, cc = cell % c, k = cell << 2;
+            nbr[k]     = cr > 0     ? cell - c : -1;
+            nbr[k + 1] = cr < r - 1 ? cell + c : -1;
+            nbr[k + 2] = cc > 0     ? cell - 1 : -1;
+            nbr[k + 3] = cc < c - 1 ? cell + 1 : -1;
+        }
+        if (n > MAX_CELLS) return;
+        SplittableRandom rnd = new SplittableRandom(0x5EEDL * n + c);
+        zobrist = new long[n * n];
+        for (int i = n; i < zobrist.length; i++) { long z; do z = rnd.nextLong(); while (z == 0); zobrist[i] = z; }
+        // board + five ints + key per node, plus about two map slots and two heap entries
+        maxNodes = (int) Math.min(1 << 24, MAX_BYTES / (n + 60));
+        int cap = Math.min(1 << 16, Integer.highestOneBit(maxNodes));
+        boards = new byte[cap * n];
+        parent = new int[cap]; moved = new int[cap]; g = new int[cap]; h = new int[cap]; key = new long[cap];
+        mapKeys = new long[cap * 2]; mapNodes = new int[cap * 2];
+        heap = new long[cap];
+    }
+}
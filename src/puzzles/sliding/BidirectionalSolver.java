@@ -0,0 +1,210 @@
+/**
+ * Project: Game Hub
+ * File: BidirectionalSolver.java
+ * Purpose: Optimal meet-in-the-middle BFS over packed states, with a memory cap.
+ */
+package puzzles.sliding;
+
+import game.core.LongByteMap;
+
+/**
+ * Breadth-first layers grow from the start and from the goal, always
+ * expanding the smaller frontier; once a layer touches the other side the
+ * shortest meeting length is optimal. Each side keeps state -> depth in a
+ * LongByteMap and the path is read back by stepping to neighbours one layer
+ * shallower, so no parent pointers are stored.
+ * States are 4-bit packed tiles for boards of up to 16 cells and permutation
+ * ranks up to 20 cells. Larger boards, or searches that would exceed the
+ * memory cap, go to the fallback solver.
+ * Not thread-safe: use one solver per thread.
+ */
+public final class BidirectionalSolver implements SlidingSolver {
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+    private static final int MAX_CELLS = 20;
+
+    private final long maxBytes;
+    private final SlidingSolver fallback;
+
+    // per-shape caches
+    private int rows = -1, cols = -1, n;
+    private boolean nibbles;
+    private PermutationRank ranker;
+    private int[] nbr;                       // 4 neighbour cells per cell, -1 = none
+    private int[] tiles, pos, cells;
+
+    private long nodes;
+
+    public BidirectionalSolver() {
+        this(DEFAULT_MAX_BYTES, new IdaStarSolver(PatternDatabases.factory(), Long.MAX_VALUE));
+    }
+
+    /**
+     * @param maxBytes cap on hash tables plus frontiers
+     * @param fallback used when the board is too large or the cap is hit; may be null
+     */
+    public BidirectionalSolver(long maxBytes, SlidingSolver fallback) {
+        this.maxBytes = maxBytes; this.fallback = fallback;
+    }
+
+    @Override public SolveResult solve(SlidingState s) {
+        long t0 = System.nanoTime();
+        int r = s.board.rows(), c = s.board.cols();
+        if (r * c > MAX_CELLS) return fallback(s);
+        prepare(r, c);
+        s.packed().copyTo(tiles, pos);
+        if (!SolverUtils.isSolvable(tiles, rows, cols)) return null;
+
+        nodes = 0;
+        long start = encode();
+        for (int i = 0; i < n - 1; i++) tiles[i] = i + 1;
+        tiles[n - 1] = 0;
+        index();
+        long goal = encode();
+        if (start == goal) return new SolveResult(new int[0], true, 0, System.nanoTime() - t0);
+
+        LongByteMap fwd = new LongByteMap(maxBytes / 3), bwd = new LongByteMap(maxBytes / 3);
+        fwd.put(start, (byte) 0);
+        bwd.put(goal, (byte) 0);
+        long[] fFront = { start }, bFront = { goal };
+        int fLen = 1, bLen = 1, fDepth = 0, bDepth = 0;
+        long[] next = new long[64];
+
+        while (true) {
+            boolean forward = fLen <= bLen;
+            long[] front = forward ? fFront : bFront;
+            int len = forward ? fLen : bLen, depth = forward ? fDepth : bDepth;
+            LongByteMap own = forward ? fwd : bwd, other = forward ? bwd : fwd;
+            if (depth >= Byte.MAX_VALUE) return fallback(s);
+
+            int nLen = 0, best = Integer.MAX_VALUE;
+            long meet = 0;
+            for (int i = 0; i < len; i++) {
+                long key = front[i];
+                decode(key);
+                nodes++;
+                int blank = pos[0];
+                for (int k = blank << 2, end = k + 4; k < end; k++) {
+                    int nb = nbr[k];
+                    if (nb < 0) continue;
+                    long child = child(key, blank, nb);
+                    int added = own.put(child, (byte) (depth + 1));
+                    if (added < 0) return fallback(s);
+                    if (added == 0) continue;
+                    int od = other.get(child);
+                    if (od >= 0 && depth + 1 + od < best) { best = depth + 1 + od; meet = child; }
+                    if (nLen == next.length) {
+                        if ((long) next.length * 16 + (long) front.length * 8 + fwd.bytes() + bwd.bytes() > maxBytes)
+                            return fallback(s);
+                        next = java.util.Arrays.copyOf(next, next.length * 2);
+                    }
+                    next[nLen++] = child;
+                }
+            }
+            if (best != Integer.MAX_VALUE) {
+                int[] moves = path(meet, fwd, bwd);
+                return new SolveResult(moves, true, nodes, System.nanoTime() - t0);
+            }
+            if (nLen == 0) return null;
+            // the expanded frontier's array is reused for the layer after next
+            long[] spare = front;
+            if (forward) { fFront = next; fLen = nLen; fDepth++; }
+            else         { bFront = next; bLen = nLen; bDepth++; }
+            next = spare;
+        }
+    }
+
+    /** Nodes expanded by the most recent solve (not counting a fallback). */
+    public long lastNodes() { return nodes; }
+
+    /** Tiles to slide: start -> meet along fwd depths, then meet -> goal along bwd depths. */
+    private int[] path(long meet, LongByteMap fwd, LongByteMap bwd) {
+        int df = fwd.get(meet), db = bwd.get(meet);
+        int[] moves = new int[df + db];
+        long cur = meet;
+        for (int d = df; d > 0; d--) {
+            decode(cur);
+            int blank = pos[0];
+            for (int k = blank << 2, end = k + 4; k < end; k++) {
+                int nb = nbr[k];
+                if (nb < 0) continue;
+                long prev = child(cur, blank, nb);
+                if (fwd.get(prev) == d - 1) {
+                    // prev -> cur slid the tile that now sits where prev's blank was
+                    moves[d - 1] = tiles[nb];
+                    cur = prev;
+                    break;
+                }
+            }
+        }
+        cur = meet;
+        for (int d = db, i = df; d > 0; d--, i++) {
+            decode(cur);
+            int blank = pos[0];
+            for (int k = blank << 2, end = k + 4; k < end; k++) {
+                int nb = nbr[k];
+                if (nb < 0) continue;
+                long nxt = child(cur, blank, nb);
+                if (bwd.get(nxt) == d - 1) { moves[i] = tiles[nb]; cur = nxt; break; }
+            }
+        }
+        return moves;
+    }
+
+    private SolveResult fallback(SlidingState s) {
+        return fallback == null ? null : fallback.solve(s);
+    }
+
+    /** Key of the decoded board with the tile on nb slid into the blank. */
+    private long child(long key, int blank, int nb) {
+        int t = tiles[nb];
+        if (nibbles) return key + ((long) t << (blank << 2)) - ((long) t << (nb << 2));
+        cells[t - 1] = blank;
+        long r = ranker.rank(cells);
+        cells[t - 1] = nb;
+        return r;
+    }
+
+    private long encode() {
+        if (nibbles) {
+            long p = 0;
+            for (int i = n - 1; i >= 0; i--) p = (p << 4) | tiles[i];
+            return p;
+        }
+        for (int t = 1; t < n; t++) cells[t - 1] = pos[t];
+        return ranker.rank(cells);
+    }
+
+    private void decode(long key) {
+        if (nibbles) {
+            for (int i = 0; i < n; i++, key >>>= 4) tiles[i] = (int) (key & 0xF);
+            index();
+            return;
+        }
+        ranker.unrank(key, cells);
+        long used = 0;
+        for (int t = 1; t < n; t++) { tiles[cells[t - 1]] = t; pos[t] = cells[t - 1]; used |= 1L << cells[t - 1]; }
+        int b = Long.numberOfTrailingZeros(~used);
+        tiles[b] = 0; pos[0] = b;
+    }
+
+    private void index() {
+        for (int i = 0; i < n; i++) pos[tiles[i]] = i;
+        if (!nibbles) for (int t = 1; t < n; t++) cells[t - 1] = pos[t];
+    }
+
+    private void prepare(int r, int c) {
+        if (r == rows && c == cols) return;
+        rows = r; cols = c; n = r * c;
+        nibbles = n <= 16;
+        ranker = nibbles ? null : new PermutationRank(n, n - 1);
+        tiles = new int[n]; pos = new int[n]; cells = new int[n];
+        nbr = new int[n * 4];
+        for (int cell = 0; cell < n; cell++) {
+            int cr = cell / c, cc = cell % c, k = cell << 2;
+            nbr[k]     = cr > 0     ? cell - c : -1;
+            nbr[k + 1] = cr < r - 1 ? cell + c : -1;
+            nbr[k + 2] = cc > 0     ? cell - 1 : -1;
+            nbr[k + 3] = cc < c - 1 ? cell + 1 : -1;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Project: Game Hub
+ * File: BlankFirstGoal.java
+ * Purpose: Blank at top-left, then 1..N-1 in order.
+ */
+package puzzles.sliding;
+
+public final class BlankFirstGoal implements GoalStrategy {
+    public static final BlankFirstGoal INSTANCE = new BlankFirstGoal();
+
+    @Override public int[] layout(int rows, int cols) {
+        int[] l = new int[rows * cols];
+        for (int c = 1; c < l.length; c++) l[c] = c;
+        return l;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Project: Game Hub
+ * File: BoardScan.java
+ * Purpose: Whole-board Manhattan / misplaced counts written for JIT auto-vectorization.
+ */
+package puzzles.sliding;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full recomputation on large boards (20x20 .. 50x50) touches thousands of
+ * cells, so the loops here run over cells in order with only loads, integer
+ * arithmetic and a sum: the goal row of a tile is a multiply-shift instead of
+ * a division or a table gather, and "is different" is a sign-bit trick rather
+ * than a branch. That is the shape HotSpot's superword pass turns into SIMD;
+ * shapes where the multiply-shift is not exact use a plain scalar loop.
+ * Goal comparison uses Arrays.mismatch, which the JVM intrinsifies.
+ */
+public final class BoardScan {
+    private static final int SHIFT = 20;
+    private static final ConcurrentHashMap<String, BoardScan> CACHE = new ConcurrentHashMap<String, BoardScan>();
+
+    private final int cols, n;
+    private final int[] cellRow, cellCol;
+    private final short[] goal;           // standard goal, cell -> tile
+    private final int[] goalTiles;        // same, widened for int scans
+    private final int magic;              // x / cols == (x * magic) >> SHIFT for 0 <= x < n, or 0 if not exact
+
+    private BoardScan(int rows, int cols) {
+        this.cols = cols; this.n = rows * cols;
+        cellRow = new int[n]; cellCol = new int[n];
+        goal = new short[n];
+        for (int i = 0; i < n; i++) { cellRow[i] = i / cols; cellCol[i] = i % cols; goal[i] = (short) (i + 1); }
+        goal[n - 1] = 0;
+        goalTiles = new int[n];
+        for (int i = 0; i < n - 1; i++) goalTiles[i] = i + 1;
+        int m = (1 << SHIFT) / cols + 1;
+        boolean exact = (long) n * m < Integer.MAX_VALUE;
+        for (int x = 0; exact && x < n; x++) exact = (x * m) >> SHIFT == x / cols;
+        magic = exact ? m : 0;
+    }
+
+    public static BoardScan forShape(int rows, int cols) {
+        return CACHE.computeIfAbsent(rows + "x" + cols, k -> new BoardScan(rows, cols));
+    }
+
+    /** Sum of Manhattan distances of the non-blank tiles (tiles[cell], blank on cell blank). */
+    public int manhattan(int[] tiles, int blank) {
+        if (magic == 0) return scalarManhattan(tiles);
+        int m = magic, sum = 0;
+        for (int i = 0; i < n; i++) {
+            int x = tiles[i] - 1;
+            int gr = (x * m) >> SHIFT, gc = x - gr * cols;
+            sum += Math.abs(cellRow[i] - gr) + Math.abs(cellCol[i] - gc);
+        }
+        return sum - blankTerm(blank);
+    }
+
+    /** As {@link #manhattan(int[], int)} on a packed board. */
+    public int manhattan(PackedBoard b) {
+        short[] tiles = b.cells();
+        if (magic == 0) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) if (tiles[i] != 0) sum += dist(i, tiles[i] & 0xFFFF);
+            return sum;
+        }
+        int m = magic, sum = 0;
+        for (int i = 0; i < n; i++) {
+            int x = (tiles[i] & 0xFFFF) - 1;
+            int gr = (x * m) >> SHIFT, gc = x - gr * cols;
+            sum += Math.abs(cellRow[i] - gr) + Math.abs(cellCol[i] - gc);
+        }
+        return sum - blankTerm(b.blank());
+    }
+
+    /** Non-blank tiles off their goal cell, counted without branches. */
+    public int misplaced(int[] tiles) {
+        int count = 0;
+        for (int i = 0; i < n - 1; i++) {
+            int d = tiles[i] - goalTiles[i];
+            count += (d | -d) >>> 31;
+        }
+        return count;
+    }
+
+    /** True if the packed board is the standard goal, comparing whole runs at a time. */
+    public boolean isGoal(PackedBoard b) { return Arrays.mismatch(b.cells(), goal) < 0; }
+
+    /** The blank (x = -1) lands on goal row -1, column cols-1 in the vector loop; this is its share. */
+    private int blankTerm(int b) {
+        return Math.abs(cellRow[b] + 1) + Math.abs(cellCol[b] - (cols - 1));
+    }
+
+    private int scalarManhattan(int[] tiles) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) if (tiles[i] != 0) sum += dist(i, tiles[i]);
+        return sum;
+    }
+
+    private int dist(int cell, int tile) {
+        return Math.abs(cellRow[cell] - (tile - 1) / cols) + Math.abs(cellCol[cell] - (tile - 1) % cols);
+    }
+}
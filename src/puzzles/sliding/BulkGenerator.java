@@ -0,0 +1,149 @@
+/**
+ * Project: Game Hub
+ * File: BulkGenerator.java
+ * Purpose: Parallel generation of random solvable boards into a compact binary file.
+ */
+package puzzles.sliding;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Boards are produced in fixed-size chunks; chunk i draws from the i-th
+ * split() of a root SplittableRandom, taken in order on the calling thread, so
+ * a (shape, count, seed) triple gives the same file on any number of threads.
+ * Workers encode whole chunks and the writer appends them in order.
+ *
+ * File: "SLPZ", int version, int rows, int cols, long count, then count
+ * records of rows*cols cells row-major (0 = blank), each cell 4 bits (<= 16
+ * cells, low nibble first), 8 bits (<= 256) or 16 bits big-endian.
+ */
+public final class BulkGenerator {
+    public static final int MAGIC = 0x534C505A;   // "SLPZ"
+    public static final int VERSION = 1;
+    private static final int CHUNK = 1 << 14;
+
+    private final int rows, cols, n, recordBytes, threads;
+
+    public BulkGenerator(int rows, int cols, int threads) {
+        if (rows < 2 || cols < 2) throw new IllegalArgumentException("min size 2x2");
+        this.rows = rows; this.cols = cols; this.n = rows * cols;
+        this.recordBytes = recordBytes(n);
+        this.threads = Math.max(1, threads);
+    }
+
+    /** Write count boards to out; returns boards per second. */
+    public double generate(Path out, long count, long seed) throws IOException {
+        long t0 = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+        SplittableRandom root = new SplittableRandom(seed);
+        try (DataOutputStream w = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(out), 1 << 16))) {
+            w.writeInt(MAGIC); w.writeInt(VERSION);
+            w.writeInt(rows); w.writeInt(cols); w.writeLong(count);
+            for (long done = 0; done < count; done += CHUNK) {
+                int size = (int) Math.min(CHUNK, count - done);
+                SplittableRandom rnd = root.split();
+                pending.add(pool.submit(() -> chunk(size, rnd)));
+                if (pending.size() >= threads * 2) w.write(pending.poll().get());
+            }
+            while (!pending.isEmpty()) w.write(pending.poll().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        return secs == 0 ? 0 : count / secs;
+    }
+
+    /** Encode size boards drawn from rnd. */
+    private byte[] chunk(int size, SplittableRandom rnd) {
+        byte[] buf = new byte[size * recordBytes];
+        int[] tiles = new int[n];
+        for (int i = 0, off = 0; i < size; i++, off += recordBytes) {
+            SolverUtils.randomSolvable(tiles, rows, cols, rnd);
+            encode(tiles, buf, off);
+        }
+        return buf;
+    }
+
+    private void encode(int[] tiles, byte[] buf, int off) {
+        if (n <= 16) {
+            for (int i = 0; i < n; i += 2)
+                buf[off + (i >> 1)] = (byte) (tiles[i] | (i + 1 < n ? tiles[i + 1] << 4 : 0));
+        } else if (n <= 256) {
+            for (int i = 0; i < n; i++) buf[off + i] = (byte) tiles[i];
+        } else {
+            for (int i = 0; i < n; i++) { buf[off + 2*i] = (byte) (tiles[i] >>> 8); buf[off + 2*i + 1] = (byte) tiles[i]; }
+        }
+    }
+
+    private static void decode(byte[] buf, int[] tiles) {
+        int n = tiles.length;
+        if (n <= 16) {
+            for (int i = 0; i < n; i++) tiles[i] = (buf[i >> 1] >>> ((i & 1) << 2)) & 0xF;
+        } else if (n <= 256) {
+            for (int i = 0; i < n; i++) tiles[i] = buf[i] & 0xFF;
+        } else {
+            for (int i = 0; i < n; i++) tiles[i] = ((buf[2*i] & 0xFF) << 8) | (buf[2*i + 1] & 0xFF);
+        }
+    }
+
+    private static int recordBytes(int n) {
+        return n <= 16 ? (n + 1) / 2 : n <= 256 ? n : 2 * n;
+    }
+
+    /**
+     * Stream the boards of a file in order; the array passed to the consumer
+     * is reused, so copy it to keep it.
+     * @return {rows, cols}
+     */
+    public static int[] read(Path in, Consumer<int[]> sink) throws IOException {
+        try (DataInputStream r = new DataInputStream(new BufferedInputStream(Files.newInputStream(in), 1 << 16))) {
+            if (r.readInt() != MAGIC) throw new IOException("not a puzzle file: " + in);
+            int version = r.readInt();
+            if (version != VERSION) throw new IOException("unsupported version " + version);
+            int rows = r.readInt(), cols = r.readInt();
+            long count = r.readLong();
+            int[] tiles = new int[rows * cols];
+            byte[] rec = new byte[recordBytes(tiles.length)];
+            for (long i = 0; i < count; i++) {
+                try { r.readFully(rec); } catch (EOFException e) { throw new IOException("truncated at board " + i, e); }
+                decode(rec, tiles);
+                sink.accept(tiles);
+            }
+            return new int[] { rows, cols };
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("usage: java puzzles.sliding.BulkGenerator rows cols count out.bin [seed] [threads]");
+            return;
+        }
+        int rows = Integer.parseInt(args[0]), cols = Integer.parseInt(args[1]);
+        long count = Long.parseLong(args[2]);
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        double rate = new BulkGenerator(rows, cols, threads).generate(Paths.get(args[3]), count, seed);
+        System.out.println(String.format("wrote %d %dx%d boards (seed %d) at %.0f boards/sec", count, rows, cols, seed, rate));
+    }
+}
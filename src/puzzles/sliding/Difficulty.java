@@ -0,0 +1,33 @@
+/**
+ * Project: Game Hub
+ * File: Difficulty.java
+ * Purpose: Difficulty levels as bands of solution length.
+ */
+package puzzles.sliding;
+
+/**
+ * Each level is a band of solution length, expressed as fractions of the
+ * shape's reference distance (see {@link PuzzleGenerator#reference}) so the
+ * same level feels comparable on 3x3 and 10x10.
+ */
+public enum Difficulty {
+    EASY(0.2, 0.4),
+    MEDIUM(0.6, 0.8),
+    HARD(1.0, Double.POSITIVE_INFINITY);
+
+    private final double lo, hi;
+
+    Difficulty(double lo, double hi) { this.lo = lo; this.hi = hi; }
+
+    /** Inclusive length band {lo, hi} for a reference distance; hi is MAX_VALUE when open. */
+    public int[] band(int reference) {
+        int l = Math.max(1, (int) Math.round(lo * reference));
+        int h = hi == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : Math.max(l, (int) Math.round(hi * reference));
+        return new int[] { l, h };
+    }
+
+    /** Menu choice 1..3 → level. */
+    public static Difficulty ofChoice(int choice) {
+        return choice == 1 ? EASY : choice == 3 ? HARD : MEDIUM;
+    }
+}
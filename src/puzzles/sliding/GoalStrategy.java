@@ -5,6 +5,17 @@
  */
 package puzzles.sliding;
 
+/**
+ * A goal is a target layout. Solvers and heuristics read it through
+ * {@link GoalTable#of}, which precomputes per-tile targets and distances
+ * once per goal instance and shape.
+ */
 public interface GoalStrategy {
-    boolean isGoal(SlidingState s);
+    /** Target layout for a rows×cols board: the tile on each cell, 0 = blank. */
+    int[] layout(int rows, int cols);
+
+    default boolean isGoal(SlidingState s) {
+        PackedBoard b = s.packed();
+        return GoalTable.of(this, b.rows(), b.cols()).matches(b);
+    }
 }
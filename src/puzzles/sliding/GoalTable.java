@@ -0,0 +1,127 @@
+/**
+ * Project: Game Hub
+ * File: GoalTable.java
+ * Purpose: Per-goal lookup tables (target cells, distances, parity), cached by goal and shape.
+ */
+package puzzles.sliding;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everything a search needs to know about a goal layout, computed once:
+ * each tile's target cell, row and column, and for boards up to
+ * {@link #DISTANCE_MAX_CELLS} cells a tile x cell table of Manhattan
+ * distances, so a heuristic update is one load whatever the goal.
+ * Tables are cached per goal instance and shape; goals are expected to be
+ * long-lived (one per rules or solver object).
+ */
+public final class GoalTable {
+    /** Largest board that gets the tile x cell distance table (2 MB). */
+    public static final int DISTANCE_MAX_CELLS = 1024;
+    private static final ConcurrentHashMap<Key, GoalTable> CACHE = new ConcurrentHashMap<Key, GoalTable>();
+
+    public final int rows, cols;
+    final int[] goalCell, goalRow, goalCol;    // tile -> target cell / row / col (index 0 = blank)
+    private final int n;
+    private final short[] layout;             // cell -> tile, as PackedBoard stores it
+    private final int[] cellRow, cellCol;
+    private final short[] dist;               // [tile * n + cell], null on large boards; short: 2x512 strips reach 512
+    private final boolean standard;
+
+    private GoalTable(GoalStrategy goal, int rows, int cols) {
+        this.rows = rows; this.cols = cols; this.n = rows * cols;
+        int[] l = goal.layout(rows, cols);
+        if (l.length != n) throw new IllegalArgumentException("goal layout has " + l.length + " cells, board has " + n);
+        layout = new short[n];
+        goalCell = new int[n]; goalRow = new int[n]; goalCol = new int[n];
+        cellRow = new int[n]; cellCol = new int[n];
+        boolean[] seen = new boolean[n];
+        boolean std = true;
+        for (int c = 0; c < n; c++) {
+            int t = l[c];
+            if (t < 0 || t >= n || seen[t]) throw new IllegalArgumentException("goal layout is not a permutation of 0.." + (n - 1));
+            seen[t] = true;
+            layout[c] = (short) t;
+            cellRow[c] = c / cols; cellCol[c] = c % cols;
+            goalCell[t] = c; goalRow[t] = c / cols; goalCol[t] = c % cols;
+            std &= t == (c + 1) % n;
+        }
+        standard = std;
+        if (n <= DISTANCE_MAX_CELLS) {
+            dist = new short[n * n];
+            for (int t = 1; t < n; t++)
+                for (int c = 0; c < n; c++)
+                    dist[t * n + c] = (short) (Math.abs(cellRow[c] - goalRow[t]) + Math.abs(cellCol[c] - goalCol[t]));
+        } else dist = null;
+    }
+
+    /** The table for a goal on a rows×cols board, built on first use. */
+    public static GoalTable of(GoalStrategy goal, int rows, int cols) {
+        return CACHE.computeIfAbsent(new Key(goal, rows, cols), k -> new GoalTable(goal, rows, cols));
+    }
+
+    /** True if this is the standard layout (1..N-1, blank bottom-right). */
+    public boolean isStandard() { return standard; }
+
+    /** Tile that belongs on a cell (0 = blank). */
+    public int tileAt(int cell) { return layout[cell]; }
+
+    /** Cell a tile belongs on. */
+    public int cellOf(int tile) { return goalCell[tile]; }
+
+    /** Manhattan distance from a cell to a tile's target cell. */
+    public int distance(int tile, int cell) {
+        if (dist != null) return dist[tile * n + cell];
+        return Math.abs(cellRow[cell] - goalRow[tile]) + Math.abs(cellCol[cell] - goalCol[tile]);
+    }
+
+    /** Sum of the non-blank tiles' distances (tiles[cell], 0 = blank). */
+    public int manhattan(int[] tiles) {
+        int sum = 0;
+        for (int c = 0; c < n; c++) if (tiles[c] != 0) sum += distance(tiles[c], c);
+        return sum;
+    }
+
+    public boolean isGoal(int[] tiles) {
+        for (int c = 0; c < n; c++) if (tiles[c] != layout[c]) return false;
+        return true;
+    }
+
+    /** Goal test on a packed board, comparing whole runs at a time. */
+    public boolean matches(PackedBoard b) { return Arrays.mismatch(b.cells(), layout) < 0; }
+
+    /**
+     * Can this goal be reached from tiles? The cell permutation taking the
+     * board to the goal must have the parity of the blank's Manhattan
+     * distance to its target; O(N) by counting cycles.
+     */
+    public boolean isSolvable(int[] tiles) {
+        boolean[] done = new boolean[n];
+        int cycles = 0, blank = 0;
+        for (int c = 0; c < n; c++) {
+            if (tiles[c] == 0) blank = c;
+            if (done[c]) continue;
+            cycles++;
+            for (int x = c; !done[x]; x = goalCell[tiles[x]]) done[x] = true;
+        }
+        int blankDist = Math.abs(cellRow[blank] - goalRow[0]) + Math.abs(cellCol[blank] - goalCol[0]);
+        return ((n - cycles) & 1) == (blankDist & 1);
+    }
+
+    /** Goal instance (by identity) plus shape. */
+    private static final class Key {
+        final GoalStrategy goal;
+        final int rows, cols;
+
+        Key(GoalStrategy goal, int rows, int cols) { this.goal = goal; this.rows = rows; this.cols = cols; }
+
+        @Override public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return k.goal == goal && k.rows == rows && k.cols == cols;
+        }
+
+        @Override public int hashCode() { return (System.identityHashCode(goal) * 31 + rows) * 31 + cols; }
+    }
+}
@@ -1,24 +1,41 @@
 /**
  * Project: Game Hub
  * File: GridBoard.java
- * Purpose: Concrete Board<SlidingTile> backed by 2D array.
+ * Purpose: Board<SlidingTile> view over a PackedBoard.
  */
 package puzzles.sliding;
 
 import game.core.Board;
+import game.core.Position;
 
 public final class GridBoard implements Board<SlidingTile> {
     private final int rows, cols;
-    private final SlidingTile[][] grid;
+    private final PackedBoard packed;
+    private final Position[] positions;   // one shared Position per cell
 
     public GridBoard(int rows, int cols) {
-        if (rows < 2 || cols < 2) throw new IllegalArgumentException("min size 2x2");
-        this.rows = rows; this.cols = cols;
-        this.grid = new SlidingTile[rows][cols];
+        this(new PackedBoard(rows, cols));
+    }
+
+    public GridBoard(PackedBoard packed) {
+        if (packed.rows() < 2 || packed.cols() < 2) throw new IllegalArgumentException("min size 2x2");
+        this.rows = packed.rows(); this.cols = packed.cols();
+        this.packed = packed;
+        this.positions = new Position[rows * cols];
     }
 
     @Override public int rows() { return rows; }
     @Override public int cols() { return cols; }
-    @Override public SlidingTile get(int r, int c) { return grid[r][c]; }
-    @Override public void set(int r, int c, SlidingTile v) { grid[r][c] = v; }
+    @Override public SlidingTile get(int r, int c) { return SlidingTile.of(packed.tileAt(r * cols + c)); }
+    @Override public void set(int r, int c, SlidingTile v) { packed.set(r * cols + c, v.value()); }
+
+    /** Primitive representation backing this view. */
+    public PackedBoard packed() { return packed; }
+
+    /** Cached Position for a cell index. */
+    public Position positionOf(int cell) {
+        Position p = positions[cell];
+        if (p == null) positions[cell] = p = new Position(cell / cols, cell % cols);
+        return p;
+    }
 }
@@ -0,0 +1,28 @@
+/**
+ * Project: Game Hub
+ * File: Heuristic.java
+ * Purpose: Admissible, incrementally updated distance estimate for solvers.
+ */
+package puzzles.sliding;
+
+/**
+ * A heuristic is bound to one board shape and may keep bookkeeping between calls,
+ * so each search uses its own instance. Boards are passed as two primitive arrays:
+ * tiles[cell] (0 = blank) and pos[tile] (cell of each tile, pos[0] = blank).
+ */
+public interface Heuristic {
+    /** Full evaluation; also resets any incremental bookkeeping. */
+    int reset(int[] tiles, int[] pos);
+
+    /**
+     * Tile moved from one cell to another (arrays already updated).
+     * Undo is reported the same way with from/to swapped.
+     * @return the new estimate (0 only at the goal)
+     */
+    int moved(int[] tiles, int[] pos, int tile, int from, int to);
+
+    /** Creates a fresh heuristic for a rows×cols board. */
+    interface Factory {
+        Heuristic create(int rows, int cols);
+    }
+}
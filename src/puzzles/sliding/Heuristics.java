@@ -0,0 +1,23 @@
+/**
+ * Project: Game Hub
+ * File: Heuristics.java
+ * Purpose: Heuristic factories by name, for command-line selection.
+ */
+package puzzles.sliding;
+
+public final class Heuristics {
+    /** md = Manhattan + linear conflict, wd = walking distance, pdb = pattern databases when present (the default). */
+    public static final String[] NAMES = { "md", "wd", "pdb" };
+
+    private Heuristics() {}
+
+    /** Factory for a name in {@link #NAMES}. */
+    public static Heuristic.Factory byName(String name) {
+        switch (name) {
+            case "md":  return ManhattanHeuristic::new;
+            case "wd":  return WalkingDistanceHeuristic.factory();
+            case "pdb": return PatternDatabases.factory();
+            default: throw new IllegalArgumentException("unknown heuristic '" + name + "' (md, wd, pdb)");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Project: Game Hub
+ * File: HintService.java
+ * Purpose: Hints that reuse the last solution while the player follows it and re-solve from its bounds otherwise.
+ */
+package puzzles.sliding;
+
+import game.core.SessionStatsHub;
+import java.util.Arrays;
+
+/**
+ * Keeps the last solution (the plan), how far along it the player is, and
+ * the moves taken since leaving it (the detour, with undos cancelled out).
+ * On the plan a hint is its next move. After a detour of k moves from a
+ * point r moves from the goal, the optimum is between r - k and r + k:
+ * IDA* starts at that lower bound, and the anytime solver starts from the
+ * "undo the detour, rejoin the plan" solution. Each hint's latency goes
+ * to {@link SessionStatsHub} under {@link #METRIC}.
+ * The game must report every move through {@link #moved} and call
+ * {@link #reset} when the board changes any other way.
+ */
+public final class HintService {
+    public static final String METRIC = "Sliding hint latency";
+
+    // roughly the budget's worth of IDA* nodes; past this the anytime solver answers
+    private static final long SEARCH_NODE_LIMIT = 1_000_000L;
+    // beyond this (without pattern databases) search is not optimal
+    private static final int OPTIMAL_MAX_CELLS = 16;
+    // up to 7x7 the anytime solver improves on the reduction solver within the budget
+    private static final int ANYTIME_MAX_CELLS = 49;
+    private static final long BUDGET_MS = 200;
+
+    private final IdaStarSolver optimal = new IdaStarSolver(PatternDatabases.factory(), SEARCH_NODE_LIMIT);
+    private final AnytimeSolver anytime = new AnytimeSolver(BUDGET_MS);
+    private final ReductionSolver reducer = new ReductionSolver();
+    private final SessionStatsHub.Latency latency = SessionStatsHub.get().latency(METRIC);
+
+    private int[] plan;                  // null: nothing to reuse
+    private boolean planOptimal;
+    private int planLower;               // lower bound on the optimum from the plan's start
+    private int cursor;                  // plan moves already played
+    private int[] detour = new int[16];  // tiles slid since leaving the plan
+    private int detourLen;
+    private boolean lastFromPlan;
+
+    /** Forget the plan (new round, auto-solve, or any change not reported through {@link #moved}). */
+    public void reset() { plan = null; detourLen = 0; }
+
+    /** The player slid a tile. */
+    public void moved(int tile) {
+        if (plan == null) return;
+        if (detourLen == 0) {
+            if (cursor < plan.length && plan[cursor] == tile) { cursor++; return; }
+            if (cursor > 0 && plan[cursor - 1] == tile) { cursor--; return; }   // stepped back along the plan
+        } else if (detour[detourLen - 1] == tile) { detourLen--; return; }     // undid the last detour move
+        if (detourLen == detour.length) detour = Arrays.copyOf(detour, detourLen * 2);
+        detour[detourLen++] = tile;
+    }
+
+    /**
+     * Solution from the current state; its first move is the hint.
+     * @return null if the board is unsolvable
+     */
+    public SolveResult hint(SlidingState s) {
+        long t0 = System.nanoTime();
+        lastFromPlan = plan != null && detourLen == 0;
+        SolveResult res = lastFromPlan ? rest(s, t0) : replan(s);
+        latency.record(System.nanoTime() - t0);
+        return res;
+    }
+
+    /** True if the last hint came from the kept plan without searching. */
+    public boolean lastFromPlan() { return lastFromPlan; }
+
+    private SolveResult rest(SlidingState s, long t0) {
+        int[] moves = Arrays.copyOfRange(plan, cursor, plan.length);
+        int lower = planOptimal ? moves.length : Math.max(lowerAtCursor(), BoardScan.forShape(s.board.rows(), s.board.cols()).manhattan(s.packed()));
+        return new SolveResult(moves, planOptimal, 0, System.nanoTime() - t0, lower);
+    }
+
+    /** A suffix of an optimal plan is optimal; otherwise each move can gain at most one. */
+    private int lowerAtCursor() {
+        return planOptimal ? plan.length - cursor : Math.max(0, planLower - cursor);
+    }
+
+    private SolveResult replan(SlidingState s) {
+        int rows = s.board.rows(), cols = s.board.cols();
+        int[] seed = null;
+        int lower = 0;
+        if (plan != null) {
+            seed = new int[detourLen + plan.length - cursor];
+            for (int i = 0; i < detourLen; i++) seed[i] = detour[detourLen - 1 - i];
+            System.arraycopy(plan, cursor, seed, detourLen, plan.length - cursor);
+            lower = Math.max(0, lowerAtCursor() - detourLen);
+        }
+        long deadline = System.nanoTime() + BUDGET_MS * 1_000_000L;
+        SolveResult res;
+        StateSpaceTable table = StateSpaceTable.forShape(rows, cols);
+        if (table != null) res = table.solve(s);
+        else if (rows * cols <= OPTIMAL_MAX_CELLS || PatternDatabases.forShape(rows, cols) != null) {
+            res = optimal.solve(s, lower);
+            if (res == null) res = anytime(s, seed, lower, deadline);   // node limit: settle for the best in budget
+        } else if (rows * cols <= ANYTIME_MAX_CELLS) res = anytime(s, seed, lower, deadline);
+        else res = reducer.solve(s);
+        if (res != null) {
+            plan = res.moves; planOptimal = res.optimal; planLower = res.lowerBound;
+            cursor = 0; detourLen = 0;
+        }
+        return res;
+    }
+
+    private SolveResult anytime(SlidingState s, int[] seed, int lower, long deadline) {
+        return anytime.solve(s, deadline, null, seed, lower);
+    }
+}
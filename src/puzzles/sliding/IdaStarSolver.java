@@ -0,0 +1,130 @@
+/**
+ * Project: Game Hub
+ * File: IdaStarSolver.java
+ * Purpose: Optimal iterative-deepening A* over a primitive copy of the board.
+ */
+package puzzles.sliding;
+
+/**
+ * Depth-first search with an f = g + h bound raised each iteration.
+ * The board is copied once into int arrays; moves are applied and undone
+ * in place and the heuristic is updated per move, so nodes allocate nothing.
+ * Not thread-safe: use one solver per thread.
+ */
+public final class IdaStarSolver implements SlidingSolver {
+    private static final int FOUND = -1;
+    private static final int ABORT = -2;
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final Heuristic.Factory factory;
+    private final long nodeLimit;
+    private final GoalStrategy goal;
+
+    // per-shape caches
+    private int rows = -1, cols = -1;
+    private Heuristic heuristic;
+    private int[] nbr;            // 4 neighbour cells per cell, -1 = none
+
+    // search scratch
+    private int[] tiles, pos, path;
+    private long nodes;
+    private int solutionLength;
+
+    public IdaStarSolver() { this(ManhattanHeuristic::new, Long.MAX_VALUE); }
+    public IdaStarSolver(long nodeLimit) { this(ManhattanHeuristic::new, nodeLimit); }
+    public IdaStarSolver(Heuristic.Factory factory, long nodeLimit) {
+        this(StandardGoal.INSTANCE, factory, nodeLimit);
+    }
+    /** @param factory must be admissible for this goal and reach 0 only on it */
+    public IdaStarSolver(GoalStrategy goal, Heuristic.Factory factory, long nodeLimit) {
+        this.goal = goal; this.factory = factory; this.nodeLimit = nodeLimit;
+    }
+
+    /** Search towards another goal with Manhattan + linear conflict measured against it. */
+    public static IdaStarSolver forGoal(GoalStrategy goal, long nodeLimit) {
+        return new IdaStarSolver(goal, ManhattanHeuristic.factory(goal), nodeLimit);
+    }
+
+    /**
+     * Find an optimal solution.
+     * @return the solution, or null if unsolvable or the node limit was hit
+     */
+    @Override public SolveResult solve(SlidingState s) { return solve(s, 0); }
+
+    /**
+     * As {@link #solve(SlidingState)}, starting the first iteration at a known
+     * lower bound (e.g. a neighbour's distance minus one) so the shallow
+     * iterations are skipped.
+     * @param lowerBound at most the optimal length, or the result may not be optimal
+     */
+    public SolveResult solve(SlidingState s, int lowerBound) {
+        long t0 = System.nanoTime();
+        prepare(s.board.rows(), s.board.cols());
+        s.packed().copyTo(tiles, pos);
+        nodes = 0;
+        if (!GoalTable.of(goal, rows, cols).isSolvable(tiles)) return null;
+
+        int h = heuristic.reset(tiles, pos);
+        int bound = Math.max(h, lowerBound);
+        while (true) {
+            int t = search(pos[0], 0, bound, -1, h);
+            if (t == FOUND) {
+                int[] moves = new int[solutionLength];
+                System.arraycopy(path, 0, moves, 0, solutionLength);
+                return new SolveResult(moves, true, nodes, System.nanoTime() - t0);
+            }
+            if (t == ABORT || t == INF) return null;
+            bound = t;
+        }
+    }
+
+    /** Nodes expanded by the most recent solve (also after an abort). */
+    public long lastNodes() { return nodes; }
+
+    private int search(int blank, int g, int bound, int prevBlank, int h) {
+        int f = g + h;
+        if (f > bound) return f;
+        if (h == 0) { solutionLength = g; return FOUND; }
+        if (++nodes > nodeLimit) return ABORT;
+        if (g == path.length) growPath();
+
+        int min = INF;
+        for (int k = blank << 2, end = k + 4; k < end; k++) {
+            int nb = nbr[k];
+            if (nb < 0 || nb == prevBlank) continue;
+            int t = tiles[nb];
+            tiles[blank] = t; tiles[nb] = 0; pos[t] = blank; pos[0] = nb;
+            int nh = heuristic.moved(tiles, pos, t, nb, blank);
+            path[g] = t;
+            int r = search(nb, g + 1, bound, blank, nh);
+            tiles[nb] = t; tiles[blank] = 0; pos[t] = nb; pos[0] = blank;
+            heuristic.moved(tiles, pos, t, blank, nb);
+            if (r == FOUND || r == ABORT) return r;
+            if (r < min) min = r;
+        }
+        return min;
+    }
+
+    private void prepare(int r, int c) {
+        if (r == rows && c == cols) return;
+        rows = r; cols = c;
+        int n = r * c;
+        heuristic = factory.create(r, c);
+        tiles = new int[n]; pos = new int[n];
+        path = new int[Math.max(64, n * 4)];
+        nbr = new int[n * 4];
+        for (int cell = 0; cell < n; cell++) {
+            int cr = cell / c, cc = cell % c, k = cell << 2;
+            nbr[k]     = cr > 0     ? cell - c : -1;
+            nbr[k + 1] = cr < r - 1 ? cell + c : -1;
+            nbr[k + 2] = cc > 0     ? cell - 1 : -1;
+            nbr[k + 3] = cc < c - 1 ? cell + 1 : -1;
+        }
+    }
+
+    private void growPath() {
+        int[] p = new int[path.length * 2];
+        System.arraycopy(path, 0, p, 0, path.length);
+        path = p;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Project: Game Hub
+ * File: ManhattanHeuristic.java
+ * Purpose: Manhattan distance plus linear conflict, updated per move.
+ */
+package puzzles.sliding;
+
+/**
+ * Measured against any goal layout: target rows/columns and distances come
+ * from the goal's {@link GoalTable}, so alternate goals cost the same per
+ * move as the standard one.
+ */
+public final class ManhattanHeuristic implements Heuristic {
+    private final int rows, cols;
+    private final int[] cellRow, cellCol;   // cell -> row/col
+    private final int[] goalRow, goalCol;   // tile -> goal row/col
+    private final int[] rowLc, colLc;       // conflict cost per line
+    private final int[] seq, tails;         // LIS scratch
+    private final GoalTable goal;
+    private final BoardScan scan;           // whole-board scans, standard goal only
+    private int md, lc;
+
+    public ManhattanHeuristic(int rows, int cols) { this(GoalTable.of(StandardGoal.INSTANCE, rows, cols)); }
+
+    public ManhattanHeuristic(GoalTable goal) {
+        this.goal = goal;
+        this.rows = goal.rows; this.cols = goal.cols;
+        int n = rows * cols;
+        cellRow = new int[n]; cellCol = new int[n];
+        for (int i = 0; i < n; i++) { cellRow[i] = i / cols; cellCol[i] = i % cols; }
+        goalRow = goal.goalRow; goalCol = goal.goalCol;
+        rowLc = new int[rows]; colLc = new int[cols];
+        int w = Math.max(rows, cols);
+        seq = new int[w]; tails = new int[w];
+        scan = goal.isStandard() ? BoardScan.forShape(rows, cols) : null;
+    }
+
+    /** Manhattan + linear conflict towards a goal. */
+    public static Heuristic.Factory factory(GoalStrategy goal) {
+        return (rows, cols) -> new ManhattanHeuristic(GoalTable.of(goal, rows, cols));
+    }
+
+    @Override public int reset(int[] tiles, int[] pos) {
+        md = scan != null ? scan.manhattan(tiles, pos[0]) : goal.manhattan(tiles);
+        lc = 0;
+        for (int r = 0; r < rows; r++) { rowLc[r] = rowConflict(tiles, r); lc += rowLc[r]; }
+        for (int c = 0; c < cols; c++) { colLc[c] = colConflict(tiles, c); lc += colLc[c]; }
+        return md + lc;
+    }
+
+    @Override public int moved(int[] tiles, int[] pos, int tile, int from, int to) {
+        md += dist(tile, to) - dist(tile, from);
+        int fr = cellRow[from], tr = cellRow[to];
+        if (fr != tr) {
+            // vertical move: column order is unchanged, only the two rows can change
+            if (goalRow[tile] == fr) { lc -= rowLc[fr]; rowLc[fr] = rowConflict(tiles, fr); lc += rowLc[fr]; }
+            if (goalRow[tile] == tr) { lc -= rowLc[tr]; rowLc[tr] = rowConflict(tiles, tr); lc += rowLc[tr]; }
+        } else {
+            int fc = cellCol[from], tc = cellCol[to];
+            if (goalCol[tile] == fc) { lc -= colLc[fc]; colLc[fc] = colConflict(tiles, fc); lc += colLc[fc]; }
+            if (goalCol[tile] == tc) { lc -= colLc[tc]; colLc[tc] = colConflict(tiles, tc); lc += colLc[tc]; }
+        }
+        return md + lc;
+    }
+
+    private int dist(int tile, int cell) { return goal.distance(tile, cell); }
+
+    /** 2 × (tiles to lift out so the rest of the row is in goal order). */
+    private int rowConflict(int[] tiles, int r) {
+        int k = 0, base = r * cols;
+        for (int c = 0; c < cols; c++) {
+            int t = tiles[base + c];
+            if (t != 0 && goalRow[t] == r) seq[k++] = goalCol[t];
+        }
+        return k < 2 ? 0 : 2 * (k - lis(k));
+    }
+
+    private int colConflict(int[] tiles, int c) {
+        int k = 0;
+        for (int r = 0; r < rows; r++) {
+            int t = tiles[r * cols + c];
+            if (t != 0 && goalCol[t] == c) seq[k++] = goalRow[t];
+        }
+        return k < 2 ? 0 : 2 * (k - lis(k));
+    }
+
+    /** Longest increasing subsequence of seq[0..k) (patience sorting). */
+    private int lis(int k) {
+        int len = 0;
+        for (int i = 0; i < k; i++) {
+            int x = seq[i], lo = 0, hi = len;
+            while (lo < hi) { int mid = (lo + hi) >>> 1; if (tails[mid] < x) lo = mid + 1; else hi = mid; }
+            tails[lo] = x;
+            if (lo == len) len++;
+        }
+        return len;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Project: Game Hub
+ * File: PackedBoard.java
+ * Purpose: Primitive tile array plus inverse index; O(1) lookup and slides.
+ */
+package puzzles.sliding;
+
+/**
+ * cells[cell] = tile (0 = blank) and where[tile] = cell, both as shorts so the
+ * largest 50x50 board still fits. Boards of up to 16 cells also pack into a
+ * single long (one nibble per cell) for hashing and compact storage.
+ * A count of cells not holding their standard-goal tile is kept up to date by
+ * set and slide, so goal detection is O(1).
+ */
+public final class PackedBoard {
+    private final int rows, cols;
+    private final short[] cells;
+    private final short[] where;
+    private int misplaced;            // cells 0..n-2 not holding tile cell+1
+
+    public PackedBoard(int rows, int cols) {
+        if (rows * cols > 0xFFFF) throw new IllegalArgumentException("board too large");
+        this.rows = rows; this.cols = cols;
+        this.cells = new short[rows * cols];
+        this.where = new short[rows * cols];
+        this.misplaced = rows * cols - 1;
+    }
+
+    private PackedBoard(PackedBoard o) {
+        this.rows = o.rows; this.cols = o.cols;
+        this.cells = o.cells.clone();
+        this.where = o.where.clone();
+        this.misplaced = o.misplaced;
+    }
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+    public int size() { return cells.length; }
+
+    // shorts are read unsigned so boards up to 0xFFFF cells work
+    public int tileAt(int cell) { return cells[cell] & 0xFFFF; }
+    public int cellOf(int tile) { return where[tile] & 0xFFFF; }
+    public int blank() { return where[0] & 0xFFFF; }
+
+    /** Write a tile into a cell and index it (callers keep the board a permutation). */
+    public void set(int cell, int tile) {
+        misplaced += wrong(cell, tile) - wrong(cell, cells[cell] & 0xFFFF);
+        cells[cell] = (short) tile; where[tile] = (short) cell;
+    }
+
+    /** Non-blank tiles off their standard-goal cell; 0 exactly when solved. */
+    public int misplaced() { return misplaced; }
+
+    private int wrong(int cell, int tile) { return cell < cells.length - 1 && tile != cell + 1 ? 1 : 0; }
+
+    /** True if the tile exists and sits next to the blank. */
+    public boolean canSlide(int tile) {
+        if (tile <= 0 || tile >= cells.length) return false;
+        int t = where[tile] & 0xFFFF, b = where[0] & 0xFFFF;
+        int dr = t / cols - b / cols, dc = t % cols - b % cols;
+        return dr * dr + dc * dc == 1;
+    }
+
+    /** Swap the tile with the blank (caller checks {@link #canSlide}); returns the tile's old cell. */
+    public int slide(int tile) {
+        int t = where[tile] & 0xFFFF, b = where[0] & 0xFFFF;
+        misplaced += wrong(b, tile) - wrong(t, tile) + wrong(t, 0) - wrong(b, 0);
+        cells[b] = (short) tile; where[tile] = (short) b;
+        cells[t] = 0; where[0] = (short) t;
+        return t;
+    }
+
+    public PackedBoard copy() { return new PackedBoard(this); }
+
+    /** Backing cell array for whole-board scans ({@link BoardScan}); do not modify. */
+    short[] cells() { return cells; }
+
+    /** Copy into solver arrays: tiles[cell] and pos[tile]. */
+    public void copyTo(int[] tiles, int[] pos) {
+        for (int i = 0; i < cells.length; i++) { tiles[i] = cells[i] & 0xFFFF; pos[i] = where[i] & 0xFFFF; }
+    }
+
+    /** One nibble per cell, cell 0 in the low bits; only for boards of at most 16 cells. */
+    public long pack() {
+        if (cells.length > 16) throw new IllegalStateException("pack() needs <= 16 cells");
+        long p = 0;
+        for (int i = cells.length - 1; i >= 0; i--) p = (p << 4) | cells[i];
+        return p;
+    }
+
+    /** Inverse of {@link #pack()}. */
+    public static PackedBoard unpack(long p, int rows, int cols) {
+        PackedBoard b = new PackedBoard(rows, cols);
+        for (int i = 0; i < rows * cols; i++, p >>>= 4) b.set(i, (int) (p & 0xF));
+        return b;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Project: Game Hub
+ * File: PatternDatabase.java
+ * Purpose: One disjoint pattern's distance table, mapped from disk.
+ */
+package puzzles.sliding;
+
+import game.core.MappedBytes;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Byte per placement of the pattern tiles: the fewest moves of those tiles
+ * needed to reach their goal cells, with every other tile treated as free.
+ * Tables for disjoint patterns can be summed and stay admissible.
+ */
+public final class PatternDatabase {
+    final int[] tiles;
+    final PermutationRank ranker;
+    private final MappedBytes table;
+
+    private PatternDatabase(int[] tiles, PermutationRank ranker, MappedBytes table) {
+        this.tiles = tiles; this.ranker = ranker; this.table = table;
+    }
+
+    /** Distance for the current tile positions (pos[tile] = cell). */
+    public int distance(int[] pos) { return table.get(ranker.rankOf(pos, tiles)) & 0xFF; }
+
+    /** Distance for a placement rank. */
+    int distanceAt(long rank) { return table.get(rank) & 0xFF; }
+
+    /** Map a table built by {@link PatternDatabaseBuilder}; null if absent or the wrong size. */
+    public static PatternDatabase load(Path dir, int rows, int cols, int[] tiles) throws IOException {
+        Path f = file(dir, rows, cols, tiles);
+        if (!Files.isRegularFile(f)) return null;
+        PermutationRank ranker = new PermutationRank(rows * cols, tiles.length);
+        if (Files.size(f) != ranker.size()) return null;
+        return new PatternDatabase(tiles.clone(), ranker, MappedBytes.openReadOnly(f));
+    }
+
+    /** e.g. dir/4x4-1_5_6_9_10_13.pdb */
+    static Path file(Path dir, int rows, int cols, int[] tiles) {
+        StringBuilder sb = new StringBuilder().append(rows).append('x').append(cols).append('-');
+        for (int i = 0; i < tiles.length; i++) { if (i > 0) sb.append('_'); sb.append(tiles[i]); }
+        return dir.resolve(sb.append(".pdb").toString());
+    }
+}
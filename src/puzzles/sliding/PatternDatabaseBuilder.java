@@ -0,0 +1,226 @@
+/**
+ * Project: Game Hub
+ * File: PatternDatabaseBuilder.java
+ * Purpose: Parallel, resumable retrograde BFS that writes one pattern database.
+ */
+package puzzles.sliding;
+
+import game.core.MappedBytes;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Abstract state = (placement of the pattern tiles, region of free cells holding
+ * the blank). Blank moves inside the region cost nothing, so a region is stored
+ * under its lowest cell. BFS runs level by level from the goal in a mapped
+ * scratch file (byte = level + 1, 0 = unseen); every finished level is recorded
+ * in a checkpoint so an interrupted build resumes at the next level.
+ * The final table keeps the minimum over regions, one byte per placement.
+ */
+public final class PatternDatabaseBuilder {
+    private static final int RANKS_PER_TASK = 1 << 12;   // multiple of 8 so scans stay word-aligned
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private final int rows, cols, n, k;
+    private final int[] tiles;
+    private final PermutationRank ranker;
+    private final int threads;
+    private final long boardMask, notFirstCol, notLastCol;
+
+    public PatternDatabaseBuilder(int rows, int cols, int[] tiles, int threads) {
+        if (rows * cols > 64) throw new IllegalArgumentException("pattern databases support up to 64 cells");
+        this.rows = rows; this.cols = cols; this.n = rows * cols;
+        this.tiles = tiles.clone(); this.k = tiles.length;
+        this.ranker = new PermutationRank(n, k);
+        this.threads = Math.max(1, threads);
+        this.boardMask = n == 64 ? -1L : (1L << n) - 1;
+        long first = 0;
+        for (int r = 0; r < rows; r++) first |= 1L << (r * cols);
+        this.notFirstCol = boardMask & ~first;
+        this.notLastCol = boardMask & ~(first << (cols - 1));
+    }
+
+    /** Build (or resume building) the table; returns its path. Existing tables are kept. */
+    public Path build(Path dir, Consumer<String> log) throws IOException {
+        Files.createDirectories(dir);
+        Path out = PatternDatabase.file(dir, rows, cols, tiles);
+        if (Files.isRegularFile(out)) return out;
+        String base = out.getFileName().toString();
+        Path scratch = dir.resolve(base + ".scratch");
+        Path ckpt = dir.resolve(base + ".ckpt");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (MappedBytes work = MappedBytes.openReadWrite(scratch, ranker.size() * n)) {
+            int level = 0;
+            if (Files.isRegularFile(ckpt)) {
+                level = Integer.parseInt(new String(Files.readAllBytes(ckpt), StandardCharsets.US_ASCII).trim()) + 1;
+                log.accept("resuming " + base + " at level " + level);
+            } else {
+                seedGoal(work);
+            }
+            while (true) {
+                if (level + 2 > 255) throw new IllegalStateException("depth exceeds byte range");
+                long t0 = System.nanoTime();
+                long[] tally = expandLevel(pool, work, level);
+                work.force();
+                Files.write(ckpt, Integer.toString(level).getBytes(StandardCharsets.US_ASCII));
+                log.accept(String.format("%s level %d: +%d states (%.1f s)", base, level + 1, tally[1],
+                        (System.nanoTime() - t0) / 1e9));
+                // stop on an empty level, not on "nothing new": after a resume the level's
+                // successors may already be in the scratch file although the checkpoint is not
+                if (tally[0] == 0) break;
+                level++;
+            }
+            Path tmp = dir.resolve(base + ".tmp");
+            try (MappedBytes table = MappedBytes.openReadWrite(tmp, ranker.size())) {
+                compact(pool, work, table);
+                table.force();
+            }
+            Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted; rerun to resume", e);
+        } catch (ExecutionException e) {
+            throw new IOException("build failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        try { Files.deleteIfExists(scratch); Files.deleteIfExists(ckpt); }
+        catch (IOException ignore) { /* still mapped on some platforms; harmless */ }
+        return out;
+    }
+
+    private void seedGoal(MappedBytes work) {
+        int[] cells = new int[k];
+        long occ = 0;
+        for (int i = 0; i < k; i++) { cells[i] = tiles[i] - 1; occ |= 1L << cells[i]; }
+        long region = flood(1L << (n - 1), ~occ & boardMask);
+        work.put(ranker.rank(cells) * n + Long.numberOfTrailingZeros(region), (byte) 1);
+    }
+
+    /** Expand every entry at the level; returns {entries found at it, new entries written}. */
+    private long[] expandLevel(ExecutorService pool, MappedBytes work, int level)
+            throws InterruptedException, ExecutionException {
+        byte target = (byte) (level + 1), next = (byte) (level + 2);
+        AtomicLong cursor = new AtomicLong(), found = new AtomicLong(), added = new AtomicLong();
+        List<Future<?>> fs = new ArrayList<Future<?>>();
+        for (int t = 0; t < threads; t++) {
+            fs.add(pool.submit(() -> {
+                int[] cells = new int[k];
+                long[] tally = new long[2];
+                while (true) {
+                    long r0 = cursor.getAndAdd(RANKS_PER_TASK);
+                    if (r0 >= ranker.size()) break;
+                    long r1 = Math.min(ranker.size(), r0 + RANKS_PER_TASK);
+                    scan(work, r0 * n, r1 * n, target, next, cells, tally);
+                }
+                found.addAndGet(tally[0]);
+                added.addAndGet(tally[1]);
+            }));
+        }
+        for (Future<?> f : fs) f.get();
+        return new long[]{found.get(), added.get()};
+    }
+
+    /** Expand every entry equal to target in [from, to); skips 8 bytes at a time. Adds {found, written} to tally. */
+    private void scan(MappedBytes work, long from, long to, byte target, byte next, int[] cells, long[] tally) {
+        long pattern = (target & 0xFFL) * ONES;
+        long i = from;
+        for (; i + 8 <= to; i += 8) {
+            long x = work.getLong(i) ^ pattern;
+            if (((x - ONES) & ~x & HIGHS) == 0) continue;   // no byte equals target
+            for (int j = 0; j < 8; j++)
+                if (work.get(i + j) == target) { tally[0]++; tally[1] += expand(work, i + j, next, cells); }
+        }
+        for (; i < to; i++)
+            if (work.get(i) == target) { tally[0]++; tally[1] += expand(work, i, next, cells); }
+    }
+
+    private long expand(MappedBytes work, long index, byte next, int[] cells) {
+        ranker.unrank(index / n, cells);
+        int blank = (int) (index % n);
+        long occ = 0;
+        for (int i = 0; i < k; i++) occ |= 1L << cells[i];
+        long region = flood(1L << blank, ~occ & boardMask);
+        long count = 0;
+        for (int i = 0; i < k; i++) {
+            int p = cells[i];
+            long adj = neighbours(1L << p) & region;
+            while (adj != 0) {
+                int q = Long.numberOfTrailingZeros(adj);
+                adj &= adj - 1;
+                cells[i] = q;
+                long nOcc = occ ^ (1L << p) ^ (1L << q);
+                long nRegion = flood(1L << p, ~nOcc & boardMask);
+                long ni = ranker.rank(cells) * n + Long.numberOfTrailingZeros(nRegion);
+                if (work.get(ni) == 0) { work.put(ni, next); count++; }
+            }
+            cells[i] = p;
+        }
+        return count;
+    }
+
+    private long neighbours(long m) {
+        return ((m >>> cols) | (m << cols) | ((m >>> 1) & notLastCol) | ((m << 1) & notFirstCol)) & boardMask;
+    }
+
+    /** Bit-parallel flood fill of seed within free. */
+    private long flood(long seed, long free) {
+        long reg = seed, prev;
+        do { prev = reg; reg |= neighbours(reg) & free; } while (reg != prev);
+        return reg;
+    }
+
+    private void compact(ExecutorService pool, MappedBytes work, MappedBytes table)
+            throws InterruptedException, ExecutionException {
+        AtomicLong cursor = new AtomicLong();
+        List<Future<?>> fs = new ArrayList<Future<?>>();
+        for (int t = 0; t < threads; t++) {
+            fs.add(pool.submit(() -> {
+                while (true) {
+                    long r0 = cursor.getAndAdd(RANKS_PER_TASK);
+                    if (r0 >= ranker.size()) break;
+                    long r1 = Math.min(ranker.size(), r0 + RANKS_PER_TASK);
+                    for (long r = r0; r < r1; r++) {
+                        int best = 255;
+                        for (int c = 0; c < n; c++) {
+                            int v = work.get(r * n + c) & 0xFF;
+                            if (v != 0 && v - 1 < best) best = v - 1;
+                        }
+                        table.put(r, (byte) best);
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : fs) f.get();
+    }
+
+    /** CLI: rows cols [dir]  — builds the default partition for that shape. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: java puzzles.sliding.PatternDatabaseBuilder rows cols [dir]");
+            return;
+        }
+        int rows = Integer.parseInt(args[0]), cols = Integer.parseInt(args[1]);
+        Path dir = args.length > 2 ? java.nio.file.Paths.get(args[2]) : PatternDatabases.directory();
+        int[][] parts = PatternDatabases.defaultPartition(rows, cols);
+        if (parts == null) { System.out.println("No default partition for " + rows + "x" + cols); return; }
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int[] p : parts) {
+            Path f = new PatternDatabaseBuilder(rows, cols, p, threads).build(dir, System.out::println);
+            System.out.println("wrote " + f);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Project: Game Hub
+ * File: PatternDatabases.java
+ * Purpose: Default partitions and a shared cache of mapped pattern databases.
+ */
+package puzzles.sliding;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tables live in the directory named by -Dsliding.pdb.dir (default "pdb") and
+ * are mapped the first time a board of that shape is searched. Shapes without
+ * tables fall back to walking distance, or Manhattan + linear conflict above 4x4.
+ */
+public final class PatternDatabases {
+    public static final String DIR_PROPERTY = "sliding.pdb.dir";
+
+    private static final Map<String, PatternDatabase[]> CACHE = new HashMap<String, PatternDatabase[]>();
+    private static final PatternDatabase[] NONE = new PatternDatabase[0];
+
+    private PatternDatabases() {}
+
+    /** Disjoint 6-6-3 (4x4) and 6-6-6-6 (5x5) partitions; null for other shapes. */
+    public static int[][] defaultPartition(int rows, int cols) {
+        if (rows == 4 && cols == 4) return new int[][] {
+            {1, 5, 6, 9, 10, 13}, {7, 8, 11, 12, 14, 15}, {2, 3, 4}
+        };
+        if (rows == 5 && cols == 5) return new int[][] {
+            {1, 2, 3, 6, 7, 8}, {4, 5, 9, 10, 14, 15},
+            {11, 12, 16, 17, 21, 22}, {13, 18, 19, 20, 23, 24}
+        };
+        return null;
+    }
+
+    public static Path directory() { return Paths.get(System.getProperty(DIR_PROPERTY, "pdb")); }
+
+    /** Mapped tables for the shape, or null if any table of the partition is missing. */
+    public static synchronized PatternDatabase[] forShape(int rows, int cols) {
+        String key = rows + "x" + cols;
+        PatternDatabase[] dbs = CACHE.get(key);
+        if (dbs == null) {
+            dbs = loadAll(rows, cols);
+            CACHE.put(key, dbs);
+        }
+        return dbs == NONE ? null : dbs;
+    }
+
+    /** Heuristic factory that uses tables when present, walking distance (or Manhattan) otherwise. */
+    public static Heuristic.Factory factory() {
+        Heuristic.Factory fallback = WalkingDistanceHeuristic.factory();
+        return (rows, cols) -> {
+            PatternDatabase[] dbs = forShape(rows, cols);
+            return dbs == null ? fallback.create(rows, cols) : new PdbHeuristic(rows, cols, dbs);
+        };
+    }
+
+    private static PatternDatabase[] loadAll(int rows, int cols) {
+        int[][] parts = defaultPartition(rows, cols);
+        if (parts == null) return NONE;
+        PatternDatabase[] dbs = new PatternDatabase[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                dbs[i] = PatternDatabase.load(directory(), rows, cols, parts[i]);
+                if (dbs[i] == null) return NONE;
+            }
+        } catch (IOException e) {
+            return NONE;
+        }
+        return dbs;
+    }
+}
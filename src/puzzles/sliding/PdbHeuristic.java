@@ -0,0 +1,37 @@
+/**
+ * Project: Game Hub
+ * File: PdbHeuristic.java
+ * Purpose: Sum of additive pattern databases, maxed with Manhattan + linear conflict.
+ */
+package puzzles.sliding;
+
+public final class PdbHeuristic implements Heuristic {
+    private final PatternDatabase[] dbs;
+    private final int[] patternOf;   // tile -> index into dbs, -1 if uncovered
+    private final int[] dist;        // current value per pattern
+    private final ManhattanHeuristic md;
+    private int sum;
+
+    public PdbHeuristic(int rows, int cols, PatternDatabase[] dbs) {
+        this.dbs = dbs;
+        this.dist = new int[dbs.length];
+        this.patternOf = new int[rows * cols];
+        java.util.Arrays.fill(patternOf, -1);
+        for (int i = 0; i < dbs.length; i++)
+            for (int t : dbs[i].tiles) patternOf[t] = i;
+        this.md = new ManhattanHeuristic(rows, cols);
+    }
+
+    @Override public int reset(int[] tiles, int[] pos) {
+        sum = 0;
+        for (int i = 0; i < dbs.length; i++) { dist[i] = dbs[i].distance(pos); sum += dist[i]; }
+        return Math.max(sum, md.reset(tiles, pos));
+    }
+
+    @Override public int moved(int[] tiles, int[] pos, int tile, int from, int to) {
+        int m = md.moved(tiles, pos, tile, from, to);
+        int p = patternOf[tile];
+        if (p >= 0) { sum -= dist[p]; dist[p] = dbs[p].distance(pos); sum += dist[p]; }
+        return Math.max(sum, m);
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Project: Game Hub
+ * File: PermutationRank.java
+ * Purpose: Dense rank/unrank of k distinct cells out of n (n <= 64).
+ */
+package puzzles.sliding;
+
+/**
+ * Lehmer-style ranking of ordered k-tuples of distinct cells in [0, n).
+ * The "how many smaller cells are still free" step is one popcount over a
+ * 64-bit used mask, so ranking is O(k) with no allocation.
+ */
+public final class PermutationRank {
+    private final int n, k;
+    private final long[] mult;   // mult[i] = (n-i-1)! / (n-k)!
+    private final long size;     // n! / (n-k)!
+
+    public PermutationRank(int n, int k) {
+        if (n > 64 || k > n || k < 1) throw new IllegalArgumentException("need 1 <= k <= n <= 64");
+        this.n = n; this.k = k;
+        mult = new long[k];
+        long m = 1;
+        for (int i = k - 1; i >= 0; i--) { mult[i] = m; m = Math.multiplyExact(m, n - i); }
+        size = m;
+    }
+
+    /** Number of distinct tuples. */
+    public long size() { return size; }
+
+    /** Rank of cells[0..k). */
+    public long rank(int[] cells) {
+        long r = 0, used = 0;
+        for (int i = 0; i < k; i++) {
+            int p = cells[i];
+            r += (p - Long.bitCount(used & ((1L << p) - 1))) * mult[i];
+            used |= 1L << p;
+        }
+        return r;
+    }
+
+    /** Rank of (pos[tiles[0]], ..., pos[tiles[k-1]]). */
+    public long rankOf(int[] pos, int[] tiles) {
+        long r = 0, used = 0;
+        for (int i = 0; i < k; i++) {
+            int p = pos[tiles[i]];
+            r += (p - Long.bitCount(used & ((1L << p) - 1))) * mult[i];
+            used |= 1L << p;
+        }
+        return r;
+    }
+
+    /**
+     * Inverse of {@link #rank}: writes the tuple into out[0..k).
+     * @return sum of the Lehmer digits (its parity is the tuple's inversion parity)
+     */
+    public int unrank(long r, int[] out) {
+        long free = n == 64 ? -1L : (1L << n) - 1;
+        int digits = 0;
+        for (int i = 0; i < k; i++) {
+            int d = (int) (r / mult[i]);
+            r -= d * mult[i];
+            long f = free;
+            for (int j = 0; j < d; j++) f &= f - 1;     // drop the d lowest free cells
+            int p = Long.numberOfTrailingZeros(f);
+            out[i] = p;
+            free &= ~(1L << p);
+            digits += d;
+        }
+        return digits;
+    }
+}
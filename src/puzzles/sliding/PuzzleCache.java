@@ -0,0 +1,68 @@
+/**
+ * Project: Game Hub
+ * File: PuzzleCache.java
+ * Purpose: Pre-generated boards per size and difficulty, refilled in the background.
+ */
+package puzzles.sliding;
+
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A single daemon thread keeps a few boards ready for every (size, level) that
+ * has been asked for, so taking one is normally just a queue poll. A miss
+ * generates on the caller's thread and schedules a refill.
+ */
+public final class PuzzleCache {
+    private static final int PER_KEY = 3;
+
+    private final ConcurrentHashMap<String, ArrayBlockingQueue<SlidingState>> ready =
+            new ConcurrentHashMap<String, ArrayBlockingQueue<SlidingState>>();
+    private final ConcurrentHashMap<String, Boolean> scheduled = new ConcurrentHashMap<String, Boolean>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sliding-puzzle-cache");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private final PuzzleGenerator background = new PuzzleGenerator();   // worker thread only
+    private final PuzzleGenerator foreground = new PuzzleGenerator();   // guarded by this
+    private final Random seeds = new Random();
+
+    /** A fresh board for the size and level (moves = 0). */
+    public SlidingState take(int rows, int cols, Difficulty d) {
+        SlidingState s = queue(rows, cols, d).poll();
+        refill(rows, cols, d);
+        if (s != null) return s;
+        synchronized (this) { return foreground.generate(rows, cols, d, nextSeed()); }
+    }
+
+    /** Start filling every level for a size without waiting. */
+    public void prefetch(int rows, int cols) {
+        for (Difficulty d : Difficulty.values()) refill(rows, cols, d);
+    }
+
+    private void refill(int rows, int cols, Difficulty d) {
+        String key = key(rows, cols, d);
+        if (scheduled.putIfAbsent(key, Boolean.TRUE) != null) return;
+        worker.execute(() -> {
+            try {
+                ArrayBlockingQueue<SlidingState> q = queue(rows, cols, d);
+                while (q.remainingCapacity() > 0) q.offer(background.generate(rows, cols, d, nextSeed()));
+            } finally {
+                scheduled.remove(key);
+            }
+        });
+    }
+
+    private ArrayBlockingQueue<SlidingState> queue(int rows, int cols, Difficulty d) {
+        return ready.computeIfAbsent(key(rows, cols, d), k -> new ArrayBlockingQueue<SlidingState>(PER_KEY));
+    }
+
+    private long nextSeed() { synchronized (seeds) { return seeds.nextLong(); } }
+
+    private static String key(int rows, int cols, Difficulty d) { return rows + "x" + cols + ":" + d; }
+}
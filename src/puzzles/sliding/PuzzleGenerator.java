@@ -0,0 +1,161 @@
+/**
+ * Project: Game Hub
+ * File: PuzzleGenerator.java
+ * Purpose: Generate boards whose solution length falls in a difficulty band.
+ */
+package puzzles.sliding;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Boards the optimal solver can handle (<= 16 cells, or with pattern databases)
+ * are measured by their optimal length: a no-backtrack walk of w moves gives an
+ * upper bound, the heuristic a lower bound, and IDA* settles anything in between.
+ * Larger boards are measured by the heuristic lower bound and scrambled by
+ * shuffling a random subset of cells, so every attempt is O(cells).
+ * Deterministic for a given seed. Not thread-safe: use one generator per thread.
+ */
+public final class PuzzleGenerator {
+    private static final int OPTIMAL_MAX_CELLS = 16;
+    private static final long SEARCH_NODE_LIMIT = 2_000_000L;
+    private static final int MAX_ATTEMPTS = 500;
+    private static final int REFERENCE_SAMPLES = 32;
+    private static final ConcurrentHashMap<String, Integer> REFERENCE = new ConcurrentHashMap<String, Integer>();
+
+    private final IdaStarSolver solver = new IdaStarSolver(PatternDatabases.factory(), SEARCH_NODE_LIMIT);
+
+    // per-shape caches
+    private int rows = -1, cols = -1;
+    private boolean exact;
+    private Heuristic heuristic;
+    private int[] tiles, pos, scratch;
+
+    /**
+     * Mean heuristic distance of a uniformly random solvable board of the shape;
+     * difficulty bands are fractions of it.
+     */
+    public static int reference(int rows, int cols) {
+        return REFERENCE.computeIfAbsent(rows + "x" + cols, k -> {
+            int n = rows * cols;
+            int[] t = new int[n], p = new int[n];
+            ManhattanHeuristic h = new ManhattanHeuristic(rows, cols);
+            Random rnd = new Random(n);
+            long sum = 0;
+            for (int i = 0; i < REFERENCE_SAMPLES; i++) {
+                permute(t, n, rows, cols, rnd);
+                index(t, p);
+                sum += h.reset(t, p);
+            }
+            return (int) Math.max(1, sum / REFERENCE_SAMPLES);
+        });
+    }
+
+    /** Length band {lo, hi} for the shape and level. */
+    public static int[] band(int rows, int cols, Difficulty d) { return d.band(reference(rows, cols)); }
+
+    /** True if generated lengths are exact optimal lengths rather than lower bounds. */
+    public static boolean exact(int rows, int cols) {
+        return rows * cols <= OPTIMAL_MAX_CELLS || PatternDatabases.forShape(rows, cols) != null;
+    }
+
+    /**
+     * A board in the band for the level; if no attempt lands in the band the
+     * closest board found is returned.
+     */
+    public SlidingState generate(int rows, int cols, Difficulty d, long seed) {
+        prepare(rows, cols);
+        int n = rows * cols;
+        int[] b = band(rows, cols, d);
+        int lo = b[0], hi = b[1];
+        Random rnd = new Random(seed * 0x9E3779B97F4A7C15L);   // spread nearby seeds apart
+
+        int[] best = null;
+        int bestMiss = Integer.MAX_VALUE;
+        int walk = hi == Integer.MAX_VALUE ? 0 : lo + rnd.nextInt(hi - lo + 1);
+        WalkShuffler walker = new WalkShuffler(rnd.nextLong());
+        int subset = n;
+        if (!exact && hi != Integer.MAX_VALUE) subset = Math.max(2, (int) ((long) n * (lo + hi) / 2 / reference(rows, cols)));
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int len;
+            if (hi == Integer.MAX_VALUE) {
+                permute(tiles, n, rows, cols, rnd);
+                index(tiles, pos);
+                len = heuristic.reset(tiles, pos);       // lower bound: enough for an open band
+            } else if (exact) {
+                goal();
+                walker.walk(tiles, pos, rows, cols, walk);
+                len = heuristic.reset(tiles, pos);
+                if (len <= hi && (len < lo || walk > hi)) len = measure(len);
+                if (len < 0) continue;                   // search gave up; try another board
+                if (len < lo) walk += lo - len;          // walks fold back on themselves: go longer
+                else if (len > hi) walk = Math.max(lo, walk - (len - hi));
+            } else {
+                shuffleSubset(Math.min(n, subset), rnd);
+                len = heuristic.reset(tiles, pos);
+                if (len < lo) subset += Math.max(1, subset / 8);
+                else if (len > hi) subset = Math.max(2, subset - Math.max(1, subset / 8));
+            }
+            if (len >= lo && len <= hi) return SlidingState.of(rows, cols, tiles);
+            int miss = len < lo ? lo - len : len - hi;
+            if (miss < bestMiss) { bestMiss = miss; best = tiles.clone(); }
+        }
+        return SlidingState.of(rows, cols, best != null ? best : tiles);
+    }
+
+    /** Optimal length of the current board, or -1 if the search hit its node limit. */
+    private int measure(int lowerBound) {
+        if (lowerBound == 0) return 0;
+        SolveResult r = solver.solve(SlidingState.of(rows, cols, tiles));
+        return r == null ? -1 : r.length();
+    }
+
+    /** Goal board with the tiles on k random cells permuted among themselves (parity kept). */
+    private void shuffleSubset(int k, Random rnd) {
+        int n = tiles.length;
+        goal();
+        int[] cells = scratch;
+        for (int i = 0; i < n; i++) cells[i] = i;
+        for (int i = 0; i < k; i++) {                 // first k entries: random distinct cells
+            int j = i + rnd.nextInt(n - i);
+            int c = cells[i]; cells[i] = cells[j]; cells[j] = c;
+        }
+        for (int i = k - 1; i > 0; i--) {             // Fisher-Yates over those cells' tiles
+            int j = rnd.nextInt(i + 1);
+            int a = cells[i], c = cells[j];
+            int t = tiles[a]; tiles[a] = tiles[c]; tiles[c] = t;
+        }
+        SolverUtils.makeSolvable(tiles, rows, cols);
+        index(tiles, pos);
+    }
+
+    private void goal() {
+        int n = tiles.length;
+        for (int i = 0; i < n - 1; i++) { tiles[i] = i + 1; pos[i + 1] = i; }
+        tiles[n - 1] = 0; pos[0] = n - 1;
+    }
+
+    private void prepare(int r, int c) {
+        if (r == rows && c == cols) return;
+        rows = r; cols = c;
+        int n = r * c;
+        exact = exact(r, c);
+        heuristic = PatternDatabases.factory().create(r, c);
+        tiles = new int[n]; pos = new int[n]; scratch = new int[n];
+    }
+
+    /** Uniform random solvable permutation into t. */
+    private static void permute(int[] t, int n, int rows, int cols, Random rnd) {
+        for (int i = 0; i < n; i++) t[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int x = t[i]; t[i] = t[j]; t[j] = x;
+        }
+        SolverUtils.makeSolvable(t, rows, cols);
+    }
+
+    private static void index(int[] t, int[] p) {
+        for (int i = 0; i < t.length; i++) p[t[i]] = i;
+    }
+}
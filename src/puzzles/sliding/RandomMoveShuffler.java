@@ -6,7 +6,6 @@
 package puzzles.sliding;
 
 import game.core.Direction;
-import game.core.Position;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -40,10 +39,7 @@ public final class RandomMoveShuffler implements Shuffler {
     }
 
     private SlidingState copy(SlidingState s) {
-        GridBoard b = new GridBoard(s.board.rows(), s.board.cols());
-        for (int i=0;i<b.rows();i++)
-            for (int j=0;j<b.cols();j++)
-                b.set(i,j,new SlidingTile(s.board.get(i,j).value()));
-        return new SlidingState(b, new Position(s.empty.r, s.empty.c), 0);
+        GridBoard b = new GridBoard(s.packed().copy());
+        return new SlidingState(b, b.positionOf(s.packed().blank()), 0);
     }
 }
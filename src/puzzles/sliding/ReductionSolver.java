@@ -0,0 +1,351 @@
+/**
+ * Project: Game Hub
+ * File: ReductionSolver.java
+ * Purpose: Fast non-optimal solver: fix rows/columns until a 3x3 core, then finish optimally.
+ */
+package puzzles.sliding;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Solves the top row or left column of the unsolved region (whichever is longer),
+ * one tile at a time, until at most 3x3 remains; the core goes to IDA*.
+ * Each tile is walked along a shortest path with the blank routed around it by BFS.
+ * The last two tiles of a line are finished with a three-body BFS (both tiles + blank)
+ * in a small window behind the line, which covers the classic "tile stuck in the
+ * corner" cases without special-case move macros.
+ * Moves are produced lazily, one placement at a time, so memory stays O(cells)
+ * plus at most one window BFS of {@link #WINDOW_MAX_STATES} states (16 MB); the
+ * whole-region fallbacks are skipped when they would be larger.
+ */
+public final class ReductionSolver implements SlidingSolver {
+    // largest exact window BFS: two int arrays of this length, 16 MB
+    private static final long WINDOW_MAX_STATES = 2_000_000L;
+
+    /** Moves (tile values) that solve the state; computed as the stream is consumed. */
+    public IntStream moves(SlidingState s) {
+        Run run = new Run(s.packed());
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(run,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /** Collect the whole solution. */
+    @Override public SolveResult solve(SlidingState s) {
+        long t0 = System.nanoTime();
+        int[] moves = moves(s).toArray();
+        return new SolveResult(moves, false, moves.length, System.nanoTime() - t0);
+    }
+
+    /** One solve in progress; not thread-safe. */
+    private static final class Run implements PrimitiveIterator.OfInt {
+        private final int rows, cols, n;
+        private final PackedBoard b;
+        private final boolean[] locked;
+        private int top, left;           // unsolved region is rows [top,rows) x cols [left,cols)
+        private int lineCursor = -1;     // next cell index along the current line, -1 = choose a line
+        private boolean lineIsRow, finished;
+
+        // emitted-but-unconsumed moves
+        private int[] buf = new int[64];
+        private int head, tail;
+
+        // BFS scratch (stamped so it never needs clearing)
+        private final int[] seen, parent, queue, trail;
+        private int stamp;
+
+        Run(PackedBoard start) {
+            b = start.copy();
+            rows = b.rows(); cols = b.cols(); n = rows * cols;
+            locked = new boolean[n];
+            seen = new int[n]; parent = new int[n]; queue = new int[n]; trail = new int[n];
+        }
+
+        @Override public boolean hasNext() {
+            while (head == tail && !finished) { head = tail = 0; step(); }
+            return head != tail;
+        }
+
+        @Override public int nextInt() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return buf[head++];
+        }
+
+        // ---------- driver ----------
+
+        private void step() {
+            int h = rows - top, w = cols - left;
+            if (h <= 3 && w <= 3) { solveCore(); finished = true; return; }
+            if (lineCursor < 0) {
+                lineIsRow = h > 3 && (h >= w || w <= 3);
+                lineCursor = lineIsRow ? left : top;
+            }
+            if (lineIsRow) stepRow(); else stepCol();
+        }
+
+        private void stepRow() {
+            int r = top;
+            if (lineCursor < cols - 2) {
+                int cell = r * cols + lineCursor;
+                if (!place(cell + 1, cell)) throw new IllegalStateException("cannot place tile " + (cell + 1));
+                locked[cell] = true;
+                lineCursor++;
+            } else {
+                int p = r * cols + cols - 2, q = p + 1;
+                finishPair(p + 1, p, q + 1, q, true);
+                locked[p] = locked[q] = true;
+                top++; lineCursor = -1;
+            }
+        }
+
+        private void stepCol() {
+            int c = left;
+            if (lineCursor < rows - 2) {
+                int cell = lineCursor * cols + c;
+                if (!place(cell + 1, cell)) throw new IllegalStateException("cannot place tile " + (cell + 1));
+                locked[cell] = true;
+                lineCursor++;
+            } else {
+                int p = (rows - 2) * cols + c, q = p + cols;
+                finishPair(p + 1, p, q + 1, q, false);
+                locked[p] = locked[q] = true;
+                left++; lineCursor = -1;
+            }
+        }
+
+        // ---------- single tile ----------
+
+        /** Walk tile to goal along a shortest unlocked path, routing the blank ahead of it. */
+        private boolean place(int tile, int goal) {
+            if (b.cellOf(tile) == goal) return true;
+            int len = bfsPath(b.cellOf(tile), goal, -1);
+            if (len < 0) return false;
+            int[] path = new int[len];
+            System.arraycopy(trail, 0, path, 0, len);
+            for (int next : path) {
+                int at = b.cellOf(tile);
+                if (!moveBlank(next, at)) return placeJoint(tile, goal);
+                emit(tile);
+            }
+            return true;
+        }
+
+        /** Route the blank to target without touching avoid or locked cells. */
+        private boolean moveBlank(int target, int avoid) {
+            int len = bfsPath(b.blank(), target, avoid);
+            if (len < 0) return false;
+            for (int i = 0; i < len; i++) emit(b.tileAt(trail[i]));
+            return true;
+        }
+
+        /**
+         * BFS over unlocked cells (never entering avoid); on success trail[0..len)
+         * holds the cells after from, up to and including to.
+         */
+        private int bfsPath(int from, int to, int avoid) {
+            if (from == to) return 0;
+            int s = ++stamp, qh = 0, qt = 0;
+            seen[from] = s; queue[qt++] = from;
+            while (qh < qt) {
+                int x = queue[qh++];
+                int xr = x / cols, xc = x % cols;
+                for (int d = 0; d < 4; d++) {
+                    int y;
+                    if (d == 0) { if (xr == 0) continue; y = x - cols; }
+                    else if (d == 1) { if (xr == rows - 1) continue; y = x + cols; }
+                    else if (d == 2) { if (xc == 0) continue; y = x - 1; }
+                    else { if (xc == cols - 1) continue; y = x + 1; }
+                    if (seen[y] == s || locked[y] || y == avoid) continue;
+                    seen[y] = s; parent[y] = x;
+                    if (y == to) {
+                        int len = 0;
+                        for (int c = y; c != from; c = parent[c]) len++;
+                        int i = len;
+                        for (int c = y; c != from; c = parent[c]) trail[--i] = c;
+                        return len;
+                    }
+                    queue[qt++] = y;
+                }
+            }
+            return -1;
+        }
+
+        /** Fallback: BFS over (tile cell, blank cell) pairs, first near the tile, then the whole region. */
+        private boolean placeJoint(int tile, int goal) {
+            int t = b.cellOf(tile), bl = b.blank();
+            int r0 = Math.min(Math.min(t / cols, goal / cols), bl / cols) - 2;
+            int r1 = Math.max(Math.max(t / cols, goal / cols), bl / cols) + 2;
+            int c0 = Math.min(Math.min(t % cols, goal % cols), bl % cols) - 2;
+            int c1 = Math.max(Math.max(t % cols, goal % cols), bl % cols) + 2;
+            return solveWindow(new int[] {tile}, new int[] {goal}, r0, r1, c0, c1)
+                    || solveWindow(new int[] {tile}, new int[] {goal}, top, rows - 1, left, cols - 1);
+        }
+
+        // ---------- last two of a line ----------
+
+        /**
+         * Put tiles a->pa and b->pb (the last two cells of a row or column). Tries a
+         * window of depth 3 behind the line, then depth 5, then (small boards) the
+         * whole unsolved region.
+         */
+        private void finishPair(int a, int pa, int bt, int pb, boolean row) {
+            if (b.cellOf(a) == pa && b.cellOf(bt) == pb) return;
+            for (int depth = 3; depth <= 5; depth += 2) {
+                int r0, r1, c0, c1, stageA, stageB;
+                if (row) {
+                    r0 = top; r1 = Math.min(rows - 1, top + depth - 1);
+                    c0 = Math.max(left, cols - depth); c1 = cols - 1;
+                    stageA = r1 * cols + c1; stageB = stageA - 1;      // far row of the window
+                } else {
+                    c0 = left; c1 = Math.min(cols - 1, left + depth - 1);
+                    r0 = Math.max(top, rows - depth); r1 = rows - 1;
+                    stageA = r1 * cols + c1; stageB = stageA - cols;   // far column of the window
+                }
+                if (stageAndFinish(a, pa, bt, pb, r0, r1, c0, c1, stageA, stageB)) return;
+            }
+            if (!solveWindow(new int[] {a, bt}, new int[] {pa, pb}, top, rows - 1, left, cols - 1))
+                throw new IllegalStateException("cannot finish line");
+        }
+
+        /** Stage both tiles and the blank inside the window, then solve the window exactly. */
+        private boolean stageAndFinish(int a, int pa, int bt, int pb, int r0, int r1, int c0, int c1,
+                                       int stageA, int stageB) {
+            if (!inWindow(b.cellOf(a), r0, r1, c0, c1) && !place(a, stageA)) return false;
+            int ca = b.cellOf(a);
+            locked[ca] = true;
+            if (!inWindow(b.cellOf(bt), r0, r1, c0, c1) && !place(bt, ca == stageB ? stageA : stageB)) {
+                locked[ca] = false;
+                return false;
+            }
+            int cb = b.cellOf(bt);
+            locked[cb] = true;
+            if (!inWindow(b.blank(), r0, r1, c0, c1)) {
+                int target = -1;
+                for (int r = r0; r <= r1 && target < 0; r++)
+                    for (int c = c0; c <= c1; c++) {
+                        int cell = r * cols + c;
+                        if (!locked[cell]) { target = cell; break; }
+                    }
+                moveBlank(target, -1);
+            }
+            locked[ca] = locked[cb] = false;
+            return solveWindow(new int[] {a, bt}, new int[] {pa, pb}, r0, r1, c0, c1);
+        }
+
+        private boolean inWindow(int cell, int r0, int r1, int c0, int c1) {
+            int r = cell / cols, c = cell % cols;
+            return r >= r0 && r <= r1 && c >= c0 && c <= c1 && !locked[cell];
+        }
+
+        /**
+         * Exact BFS over the positions of the tracked tiles plus the blank, restricted
+         * to the unlocked cells of the window. Emits the moves and returns true on success.
+         * Everything tracked must already be inside the window.
+         */
+        private boolean solveWindow(int[] tiles, int[] goals, int r0, int r1, int c0, int c1) {
+            r0 = Math.max(r0, top); c0 = Math.max(c0, left);
+            r1 = Math.min(r1, rows - 1); c1 = Math.min(c1, cols - 1);
+            int[] local = new int[n];
+            java.util.Arrays.fill(local, -1);
+            int w = 0;
+            for (int r = r0; r <= r1; r++)
+                for (int c = c0; c <= c1; c++)
+                    if (!locked[r * cols + c]) local[r * cols + c] = w++;
+            int[] global = new int[w];
+            for (int i = 0; i < n; i++) if (local[i] >= 0) global[local[i]] = i;
+
+            int k = tiles.length + 1;                  // tracked tiles + blank (last)
+            long states = 1;
+            for (int i = 0; i < k; i++) states *= w;
+            if (states > WINDOW_MAX_STATES) return false;
+            int[] at = new int[k];
+            for (int i = 0; i < tiles.length; i++) at[i] = local[b.cellOf(tiles[i])];
+            at[k - 1] = local[b.blank()];
+            for (int x : at) if (x < 0) return false;
+
+            int[] prev = new int[(int) states];
+            java.util.Arrays.fill(prev, -1);
+            int[] q = new int[(int) states];
+            int startCode = encode(at, w), qh = 0, qt = 0;
+            prev[startCode] = startCode; q[qt++] = startCode;
+            int goalCode = -1;
+            int[] cur = new int[k];
+            while (qh < qt && goalCode < 0) {
+                int code = q[qh++];
+                decode(code, w, cur);
+                boolean done = true;
+                for (int i = 0; i < tiles.length; i++) if (global[cur[i]] != goals[i]) { done = false; break; }
+                if (done) { goalCode = code; break; }
+                int blank = global[cur[k - 1]];
+                int br = blank / cols, bc = blank % cols;
+                for (int d = 0; d < 4; d++) {
+                    int nr = br + (d == 0 ? -1 : d == 1 ? 1 : 0), nc = bc + (d == 2 ? -1 : d == 3 ? 1 : 0);
+                    if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) continue;
+                    int nl = local[nr * cols + nc];
+                    if (nl < 0) continue;
+                    int old = cur[k - 1];
+                    int moved = -1;
+                    for (int i = 0; i < tiles.length; i++) if (cur[i] == nl) { moved = i; cur[i] = old; }
+                    cur[k - 1] = nl;
+                    int nc2 = encode(cur, w);
+                    if (prev[nc2] < 0) { prev[nc2] = code; q[qt++] = nc2; }
+                    cur[k - 1] = old;
+                    if (moved >= 0) cur[moved] = nl;
+                }
+            }
+            if (goalCode < 0) return false;
+            // unwind blank cells, then replay
+            int len = 0;
+            for (int c = goalCode; c != startCode; c = prev[c]) len++;
+            int[] blanks = new int[len];
+            for (int c = goalCode, i = len; c != startCode; c = prev[c]) { decode(c, w, cur); blanks[--i] = global[cur[k - 1]]; }
+            for (int cell : blanks) emit(b.tileAt(cell));
+            return true;
+        }
+
+        private static int encode(int[] at, int w) {
+            int code = 0;
+            for (int i = at.length - 1; i >= 0; i--) code = code * w + at[i];
+            return code;
+        }
+
+        private static void decode(int code, int w, int[] out) {
+            for (int i = 0; i < out.length; i++) { out[i] = code % w; code /= w; }
+        }
+
+        // ---------- core ----------
+
+        /** Solve the remaining (at most 3x3) region optimally by relabelling it as a small puzzle. */
+        private void solveCore() {
+            int h = rows - top, w = cols - left;
+            if (h < 2 || w < 2) return;   // only when the input was already solved to this point
+            PackedBoard small = new PackedBoard(h, w);
+            int[] toGlobal = new int[h * w];
+            for (int r = 0; r < h; r++)
+                for (int c = 0; c < w; c++) {
+                    int tile = b.tileAt((top + r) * cols + left + c);
+                    int localTile = 0;
+                    if (tile != 0) {
+                        int g = tile - 1;
+                        localTile = (g / cols - top) * w + (g % cols - left) + 1;
+                        toGlobal[localTile] = tile;
+                    }
+                    small.set(r * w + c, localTile);
+                }
+            GridBoard gb = new GridBoard(small);
+            SolveResult res = new IdaStarSolver().solve(new SlidingState(gb, gb.positionOf(small.blank()), 0));
+            if (res == null) throw new IllegalStateException("core is unsolvable");
+            for (int m : res.moves) emit(toGlobal[m]);
+        }
+
+        private void emit(int tile) {
+            b.slide(tile);
+            if (tail == buf.length) buf = java.util.Arrays.copyOf(buf, buf.length * 2);
+            buf[tail++] = tile;
+        }
+    }
+}
@@ -13,10 +13,12 @@ import game.core.GameFactory;
 public final class SlidingFactory implements GameFactory {
     // session bests per factory instance
     private final SessionBest best = new SessionBest();
+    // pre-generated boards shared by every game this factory creates
+    private final PuzzleCache cache = new PuzzleCache();
 
     @Override public String name() { return "Sliding Puzzle"; }
 
     @Override public Game create(ConsoleIO io) {
-        return new SlidingGame(io, best); // no sizing/difficulty here
+        return new SlidingGame(io, best, cache); // no sizing/difficulty here
     }
 }
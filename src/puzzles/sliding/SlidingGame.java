@@ -15,9 +15,25 @@ public final class SlidingGame implements Game {
     private final SlidingRules rules = new SlidingRules();
     private final Renderer<SlidingState> renderer = new SlidingRenderer();
     private final SessionBest best;   // session best per size
+    private final PuzzleCache cache;  // pre-generated boards per size and difficulty
+    private final IdaStarSolver solver = new IdaStarSolver(PatternDatabases.factory(), SEARCH_NODE_LIMIT);
+    private final ReductionSolver reducer = new ReductionSolver();
+    private final AnytimeSolver anytime = new AnytimeSolver(SOLVE_BUDGET_MS);
+    private final HintService hints = new HintService();
 
-    public SlidingGame(ConsoleIO io, SessionBest best) {
-        this.io = io; this.best = best;
+    // about a second of IDA* (3-5M nodes/s); past it 's' takes the anytime solver's best instead.
+    // 4x4 with pattern databases averages 0.15 s; without them some boards need more
+    private static final long SEARCH_NODE_LIMIT = 5_000_000L;
+    // beyond this (without pattern databases) hints come from the reduction solver
+    private static final int OPTIMAL_MAX_CELLS = 16;
+    // 's' on boards beyond optimal search gets the best solution found in this time
+    private static final long SOLVE_BUDGET_MS = 1000;
+    // up to 7x7 the anytime solver improves on the reduction solver within that budget
+    private static final int ANYTIME_MAX_CELLS = 49;
+
+    public SlidingGame(ConsoleIO io, SessionBest best, PuzzleCache cache) {
+        this.io = io; this.best = best; this.cache = cache;
+        cache.prefetch(3, 3);   // the default size is ready before the first Play
     }
 
     @Override public void run() {
@@ -41,33 +57,81 @@ public final class SlidingGame implements Game {
         int rows = askInt("Rows (>=2) [3]: ", 3, 2, 50);
         int cols = askInt("Cols (>=2) [3]: ", 3, 2, 50);
         io.println("Difficulty: 1) Easy  2) Medium  3) Hard");
-        int d = askInt("Choice [2]: ", 2, 1, 3);
-        int steps = (d==1? 10 : d==3? 200 : 60);
+        Difficulty d = Difficulty.ofChoice(askInt("Choice [2]: ", 2, 1, 3));
         io.print("Seed (Enter for random): ");
         String s = io.nextLine().trim();
-        long seed = (s.isEmpty() ? System.currentTimeMillis() : parseLong(s, System.currentTimeMillis()));
 
         String key = rows + "x" + cols;
-        SlidingState start = SolverUtils.randomSolvable(rows, cols, seed);
-        Shuffler shuffler = new RandomMoveShuffler(seed);
-        SlidingState state = shuffler.shuffle(start, steps);
+        // a seed reproduces the same board; otherwise take a pre-generated one
+        SlidingState state = s.isEmpty() ? cache.take(rows, cols, d)
+                : new PuzzleGenerator().generate(rows, cols, d, parseLong(s, System.currentTimeMillis()));
+        int[] band = PuzzleGenerator.band(rows, cols, d);
+        io.println("Target: " + (band[1] == Integer.MAX_VALUE ? "at least " + band[0] : band[0] + "-" + band[1])
+                + " moves" + (PuzzleGenerator.exact(rows, cols) ? " to solve optimally." : " (estimated)."));
 
-        io.println("Enter a tile number to slide, or 'q' to quit the round.");
+        io.println("Enter a tile number to slide, 'h' for a hint, 's' to auto-solve, or 'q' to quit the round.");
+        boolean assisted = false;
+        hints.reset();
         while (true) {
             io.println(renderer.render(state));
             if (rules.isTerminal(state)) {
                 io.println("Solved in " + state.moves + " moves!");
-                best.consider(key, state.moves);
+                if (!assisted) best.consider(key, state.moves);
                 break;
             }
-            io.print("Tile (or q): ");
+            io.print("Tile (or h/s/q): ");
             String in = io.nextLine().trim();
             if (in.equalsIgnoreCase("q")) break;
+            if (in.equalsIgnoreCase("h")) { showHint(state); continue; }
+            if (in.equalsIgnoreCase("s")) {
+                SlidingState solved = autoSolve(state);
+                if (solved != state) { state = solved; assisted = true; hints.reset(); }
+                continue;
+            }
             int v; try { v = Integer.parseInt(in); } catch (Exception e) { io.println("Enter a number."); continue; }
             SlideAction a = new SlideAction(v);
             if (!rules.isValid(state, a)) { io.println("Invalid: " + rules.validationError(state, a)); continue; }
             state = rules.apply(state, a);
+            hints.moved(v);
+        }
+    }
+
+    private void showHint(SlidingState state) {
+        SolveResult res = hints.hint(state);
+        if (res == null || res.length() == 0) return;
+        io.println("Hint: slide " + res.moves[0] + "  (" + (hints.lastFromPlan() ? "following the last plan: " : "") + res + ")");
+    }
+
+    /** Play out a solution; returns the input state if there was nothing to play. */
+    private SlidingState autoSolve(SlidingState state) {
+        SolveResult res = optimal(state);
+        if (res == null && state.board.rows() * state.board.cols() <= ANYTIME_MAX_CELLS) res = anytime.solve(state);
+        if (res != null) {
+            StringBuilder sb = new StringBuilder("Solution:");
+            for (int m : res.moves) {
+                sb.append(' ').append(m);
+                state = rules.apply(state, new SlideAction(m));
+            }
+            io.println(sb.toString());
+            io.println("Solver: " + res);
+            return state;
         }
+        long t0 = System.nanoTime();
+        int start = state.moves;
+        SlidingState[] cur = { state };
+        reducer.moves(state).forEach(m -> cur[0] = rules.apply(cur[0], new SlideAction(m)));
+        io.println(String.format("Reduction solver: %d moves in %.1f ms (not optimal)",
+                cur[0].moves - start, (System.nanoTime() - t0) / 1e6));
+        return cur[0];
+    }
+
+    /** Optimal solution from a state-space table or IDA* if the board is small enough, else null. */
+    private SolveResult optimal(SlidingState state) {
+        int rows = state.board.rows(), cols = state.board.cols();
+        StateSpaceTable table = StateSpaceTable.forShape(rows, cols);
+        if (table != null) return table.solve(state);
+        if (rows * cols > OPTIMAL_MAX_CELLS && PatternDatabases.forShape(rows, cols) == null) return null;
+        return solver.solve(state);
     }
 
     private void showRules() {
@@ -75,7 +139,10 @@ public final class SlidingGame implements Game {
         io.println("- Slide a tile adjacent to the blank into the blank.");
         io.println("- Goal: arrange tiles 1..N with the blank at bottom-right.");
         io.println("- Boards are generated solvable (parity test).");
-        io.println("- Difficulty controls how many random moves scramble the board.");
+        io.println("- Difficulty picks a band of solution length scaled to the board size.");
+        io.println("- 'h' shows the next move of a solution; 's' solves the board (not counted for bests).");
+        io.println("- Solutions are optimal up to 4x4 (5x5 with pattern databases); larger boards use a fast solver.");
+        io.println("- Up to 7x7 the fast solver keeps improving for a fixed time and reports how far from optimal it may be.");
     }
 
     private void showBest() {
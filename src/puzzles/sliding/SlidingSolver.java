@@ -0,0 +1,14 @@
+/**
+ * Project: Game Hub
+ * File: SlidingSolver.java
+ * Purpose: Common interface over the sliding puzzle solvers.
+ */
+package puzzles.sliding;
+
+public interface SlidingSolver {
+    /**
+     * Solve to the standard goal.
+     * @return the solution, or null if unsolvable or the solver gave up
+     */
+    SolveResult solve(SlidingState s);
+}
@@ -0,0 +1,37 @@
+/**
+ * Project: Game Hub
+ * File: SlidingSolvers.java
+ * Purpose: Pick a solver strategy per board shape.
+ */
+package puzzles.sliding;
+
+/**
+ * Shapes with a state-space table: read the answer off the table. 2xN strips:
+ * bidirectional BFS (exact, no tables, capped memory, IDA* behind it); strips
+ * are where Manhattan-guided search is weakest. Up to 4x4, or any shape with
+ * pattern databases: IDA*. Everything larger: the non-optimal reduction solver.
+ */
+public final class SlidingSolvers {
+    // 2x7 already outgrows the default memory cap on random boards
+    private static final int STRIP_MAX_CELLS = 12;
+    private static final int OPTIMAL_MAX_CELLS = 16;
+
+    private SlidingSolvers() {}
+
+    /** A solver suited to the shape; apart from the shared tables they are not thread-safe, so one per thread. */
+    public static SlidingSolver forShape(int rows, int cols, long nodeLimit) {
+        return forShape(rows, cols, nodeLimit, PatternDatabases.factory());
+    }
+
+    /** As {@link #forShape(int, int, long)}, with the heuristic IDA* should use. */
+    public static SlidingSolver forShape(int rows, int cols, long nodeLimit, Heuristic.Factory heuristic) {
+        int n = rows * cols;
+        StateSpaceTable table = StateSpaceTable.forShape(rows, cols);
+        if (table != null) return table;
+        IdaStarSolver ida = new IdaStarSolver(heuristic, nodeLimit);
+        if (Math.min(rows, cols) == 2 && n <= STRIP_MAX_CELLS)
+            return new BidirectionalSolver(BidirectionalSolver.DEFAULT_MAX_BYTES, ida);
+        if (n <= OPTIMAL_MAX_CELLS || PatternDatabases.forShape(rows, cols) != null) return ida;
+        return new ReductionSolver();
+    }
+}
@@ -15,4 +15,15 @@ public final class SlidingState {
     public SlidingState(GridBoard board, Position empty, int moves) {
         this.board = board; this.empty = empty; this.moves = moves;
     }
+
+    /** Build a state from a row-major tile array (0 = blank). */
+    public static SlidingState of(int rows, int cols, int[] tiles) {
+        PackedBoard p = new PackedBoard(rows, cols);
+        for (int i = 0; i < tiles.length; i++) p.set(i, tiles[i]);
+        GridBoard b = new GridBoard(p);
+        return new SlidingState(b, b.positionOf(p.blank()), 0);
+    }
+
+    /** Primitive board behind {@link #board}. */
+    public PackedBoard packed() { return board.packed(); }
 }
@@ -10,8 +10,17 @@ import game.core.Piece;
 public final class SlidingTile implements Piece {
     private final int value; // 0 => blank
 
+    // shared instances for board views; tiles are immutable so sharing is safe
+    private static final SlidingTile[] CACHE = new SlidingTile[4096];
+    static { for (int i = 0; i < CACHE.length; i++) CACHE[i] = new SlidingTile(i); }
+
     public SlidingTile(int value) { this.value = value; }
 
+    /** Shared instance for small values, fresh one otherwise. */
+    public static SlidingTile of(int value) {
+        return value >= 0 && value < CACHE.length ? CACHE[value] : new SlidingTile(value);
+    }
+
     /** @return numeric value (0 => blank) */
     public int value() { return value; }
 
@@ -0,0 +1,19 @@
+/**
+ * Project: Game Hub
+ * File: SnakeGoal.java
+ * Purpose: 1..N-1 in boustrophedon order (even rows left to right, odd rows back), blank last.
+ */
+package puzzles.sliding;
+
+public final class SnakeGoal implements GoalStrategy {
+    public static final SnakeGoal INSTANCE = new SnakeGoal();
+
+    @Override public int[] layout(int rows, int cols) {
+        int[] l = new int[rows * cols];
+        int t = 1;
+        for (int r = 0; r < rows; r++)
+            for (int i = 0; i < cols; i++) l[r * cols + (r % 2 == 0 ? i : cols - 1 - i)] = t++;
+        l[(rows - 1) * cols + (rows % 2 == 1 ? cols - 1 : 0)] = 0;
+        return l;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Project: Game Hub
+ * File: SolveResult.java
+ * Purpose: Solution (tiles to slide, in order) plus search statistics.
+ */
+package puzzles.sliding;
+
+public final class SolveResult {
+    public final int[] moves;     // tile values to slide, first move first
+    public final boolean optimal; // true if no shorter solution exists
+    public final long nodes;      // nodes expanded
+    public final long nanos;      // wall time
+    public final int lowerBound;  // proven lower bound on the optimal length, 0 if unknown
+
+    public SolveResult(int[] moves, boolean optimal, long nodes, long nanos) {
+        this(moves, optimal, nodes, nanos, optimal ? moves.length : 0);
+    }
+
+    public SolveResult(int[] moves, boolean optimal, long nodes, long nanos, int lowerBound) {
+        this.moves = moves; this.optimal = optimal; this.nodes = nodes; this.nanos = nanos;
+        this.lowerBound = lowerBound;
+    }
+
+    public int length() { return moves.length; }
+
+    public double millis() { return nanos / 1e6; }
+
+    public double nodesPerSecond() { return nanos == 0 ? 0 : nodes * 1e9 / nanos; }
+
+    /** length / lower bound: the solution is at most this many times optimal (infinite if unknown). */
+    public double suboptimality() {
+        if (optimal || moves.length == 0) return 1.0;
+        return lowerBound == 0 ? Double.POSITIVE_INFINITY : (double) moves.length / lowerBound;
+    }
+
+    @Override public String toString() {
+        String quality = optimal ? " (optimal)"
+                : lowerBound > 0 ? String.format(" (within x%.2f of optimal)", suboptimality()) : "";
+        return String.format("%d moves%s, %d nodes, %.1f ms, %.2fM nodes/s",
+                length(), quality, nodes, millis(), nodesPerSecond() / 1e6);
+    }
+}
@@ -5,11 +5,8 @@
  */
 package puzzles.sliding;
 
-import game.core.Position;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public final class SolverUtils {
     private SolverUtils() {}
@@ -21,43 +18,40 @@ public final class SolverUtils {
      * @param seed RNG seed (use System.currentTimeMillis() for time-based)
      */
     public static SlidingState randomSolvable(int rows, int cols, long seed) {
-        Random rnd = new Random(seed);
-        List<Integer> vals = new ArrayList<>(rows*cols);
-        for (int i = 0; i < rows*cols; i++) vals.add(i); // 0..N-1 (0 = blank)
+        int[] tiles = new int[rows*cols];
+        randomSolvable(tiles, rows, cols, new SplittableRandom(seed));
+        return SlidingState.of(rows, cols, tiles);
+    }
 
-        while (true) {
-            Collections.shuffle(vals, rnd);
-            if (isSolvable(vals, rows, cols)) {
-                GridBoard b = new GridBoard(rows, cols);
-                Position empty = null;
-                int k = 0;
-                for (int r=0;r<rows;r++){
-                    for (int c=0;c<cols;c++){
-                        int v = vals.get(k++);
-                        b.set(r,c,new SlidingTile(v));
-                        if (v==0) empty = new Position(r,c);
-                    }
-                }
-                return new SlidingState(b, empty, 0);
-            }
+    /**
+     * Fill tiles with a uniform random solvable board: one Fisher-Yates pass,
+     * then a parity fix instead of reshuffling.
+     */
+    public static void randomSolvable(int[] tiles, int rows, int cols, SplittableRandom rnd) {
+        int n = rows*cols;
+        for (int i = 0; i < n; i++) tiles[i] = i; // 0..N-1 (0 = blank)
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = tiles[i]; tiles[i] = tiles[j]; tiles[j] = t;
         }
+        makeSolvable(tiles, rows, cols);
     }
 
-    /** Standard n-puzzle parity test for m×n. */
-    public static boolean isSolvable(List<Integer> perm, int rows, int cols) {
-        int N = rows*cols;
-        int[] a = new int[N-1];
-        int idx = 0, blankIndex = -1;
-        for (int i=0;i<N;i++){
-            int v = perm.get(i);
-            if (v == 0) blankIndex = i;
-            else a[idx++] = v;
-        }
-        int inv = 0;
-        for (int i=0;i<a.length;i++)
-            for (int j=i+1;j<a.length;j++)
-                if (a[i] > a[j]) inv++;
+    /**
+     * Make a board solvable in place: if it is not, swap two non-blank tiles,
+     * which flips the inversion parity and leaves the blank where it is.
+     */
+    public static void makeSolvable(int[] tiles, int rows, int cols) {
+        if (isSolvable(tiles, rows, cols)) return;
+        int a = tiles[0] != 0 ? 0 : 2, b = tiles[1] != 0 ? 1 : 2;
+        int t = tiles[a]; tiles[a] = tiles[b]; tiles[b] = t;
+    }
 
+    /** Parity test on a row-major tile array (0 = blank); O(N log N). */
+    public static boolean isSolvable(int[] tiles, int rows, int cols) {
+        int blankIndex = 0;
+        while (tiles[blankIndex] != 0) blankIndex++;
+        long inv = inversions(tiles);
         if ((cols % 2) == 1) {
             return (inv % 2) == 0; // odd width: even inversions
         } else {
@@ -69,4 +63,28 @@ public final class SolverUtils {
             }
         }
     }
+
+    /** Standard n-puzzle parity test for m×n. */
+    public static boolean isSolvable(List<Integer> perm, int rows, int cols) {
+        int[] tiles = new int[perm.size()];
+        for (int i = 0; i < tiles.length; i++) tiles[i] = perm.get(i);
+        return isSolvable(tiles, rows, cols);
+    }
+
+    /**
+     * Inversions among the non-blank tiles, counted right to left with a
+     * Fenwick tree over tile values.
+     */
+    public static long inversions(int[] tiles) {
+        int n = tiles.length;
+        int[] tree = new int[n];                  // tiles 1..n-1, 1-based
+        long inv = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int v = tiles[i];
+            if (v == 0) continue;
+            for (int k = v - 1; k > 0; k -= k & -k) inv += tree[k];   // smaller tiles to the right
+            for (int k = v; k < n; k += k & -k) tree[k]++;
+        }
+        return inv;
+    }
 }
@@ -0,0 +1,27 @@
+/**
+ * Project: Game Hub
+ * File: SpiralGoal.java
+ * Purpose: 1..N-1 clockwise inwards from the top-left corner, blank at the end of the spiral.
+ */
+package puzzles.sliding;
+
+public final class SpiralGoal implements GoalStrategy {
+    public static final SpiralGoal INSTANCE = new SpiralGoal();
+
+    @Override public int[] layout(int rows, int cols) {
+        int n = rows * cols;
+        int[] l = new int[n];
+        int top = 0, bottom = rows - 1, left = 0, right = cols - 1, t = 1;
+        while (t < n) {
+            for (int c = left; c <= right && t < n; c++) l[top * cols + c] = t++;
+            top++;
+            for (int r = top; r <= bottom && t < n; r++) l[r * cols + right] = t++;
+            right--;
+            for (int c = right; c >= left && top <= bottom && t < n; c--) l[bottom * cols + c] = t++;
+            bottom--;
+            for (int r = bottom; r >= top && left <= right && t < n; r--) l[r * cols + left] = t++;
+            left++;
+        }
+        return l;
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Project: Game Hub
+ * File: StateSpaceTable.java
+ * Purpose: Exact distance of every state of a small board, for search-free solving.
+ */
+package puzzles.sliding;
+
+import game.core.MappedBytes;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * One nibble per solvable state of boards up to 12 cells (3x4 = 12!/2 states,
+ * 120 MB). A state is indexed by the Lehmer rank of the cells of the blank and
+ * tiles 1..n-3; the last two tiles are implied by solvability, which halves the
+ * table. A nibble holds (distance mod 15) + 1, 0 = not reached: neighbours of a
+ * state are exactly one layer nearer or farther, so stepping to the neighbour
+ * whose value is one less (mod 15) walks an optimal path to the goal, and its
+ * length is the distance. Tables live next to the pattern databases.
+ * Built single-threaded by breadth-first layers from the goal.
+ */
+public final class StateSpaceTable implements SlidingSolver {
+    public static final int MAX_CELLS = 12;
+
+    private static final Map<String, StateSpaceTable> CACHE = new HashMap<String, StateSpaceTable>();
+
+    private final int rows, cols, n, k;
+    private final PermutationRank ranker;
+    private final MappedBytes table;
+
+    private StateSpaceTable(int rows, int cols, MappedBytes table) {
+        this.rows = rows; this.cols = cols; this.n = rows * cols; this.k = n - 2;
+        this.ranker = new PermutationRank(n, k);
+        this.table = table;
+    }
+
+    /** Mapped table for the shape from {@link PatternDatabases#directory()}, or null if absent. */
+    public static synchronized StateSpaceTable forShape(int rows, int cols) {
+        String key = rows + "x" + cols;
+        if (!CACHE.containsKey(key)) {
+            StateSpaceTable t;
+            try { t = load(PatternDatabases.directory(), rows, cols); }
+            catch (IOException e) { t = null; }
+            CACHE.put(key, t);
+        }
+        return CACHE.get(key);
+    }
+
+    /** Map a table built by {@link #build}; null if absent or the wrong size. */
+    public static StateSpaceTable load(Path dir, int rows, int cols) throws IOException {
+        if (rows * cols > MAX_CELLS) return null;
+        Path f = file(dir, rows, cols);
+        if (!Files.isRegularFile(f) || Files.size(f) != bytes(rows * cols)) return null;
+        return new StateSpaceTable(rows, cols, MappedBytes.openReadOnly(f));
+    }
+
+    /** e.g. dir/3x4.sst */
+    static Path file(Path dir, int rows, int cols) { return dir.resolve(rows + "x" + cols + ".sst"); }
+
+    private static long bytes(int n) { return (new PermutationRank(n, n - 2).size() + 1) / 2; }
+
+    /** Optimal number of moves to the goal; -1 if the board is unsolvable. */
+    public int distance(SlidingState s) {
+        SolveResult r = solve(s);
+        return r == null ? -1 : r.length();
+    }
+
+    /** First tile of an optimal solution; 0 if solved, -1 if unsolvable. */
+    public int bestMove(SlidingState s) {
+        Walk w = new Walk(s);
+        if (w.code < 0) return -1;
+        return w.goal() ? 0 : w.step();
+    }
+
+    /** Optimal solution read off the table; no search. */
+    @Override public SolveResult solve(SlidingState s) {
+        long t0 = System.nanoTime();
+        Walk w = new Walk(s);
+        if (w.code < 0) return null;
+        int[] moves = new int[16];
+        int len = 0;
+        while (!w.goal()) {
+            if (len == moves.length) moves = Arrays.copyOf(moves, len * 2);
+            moves[len++] = w.step();
+        }
+        return new SolveResult(Arrays.copyOf(moves, len), true, len, System.nanoTime() - t0);
+    }
+
+    private int code(long idx) { return (table.get(idx >>> 1) >>> ((idx & 1) << 2)) & 0xF; }
+
+    /** Descent from a state to the goal along decreasing table values. */
+    private final class Walk {
+        final int[] tiles = new int[n], cells = new int[n];
+        final int[] nbrs = new int[4];
+        int code;
+
+        Walk(SlidingState s) {
+            s.packed().copyTo(tiles, cells);
+            code = SolverUtils.isSolvable(tiles, rows, cols) ? code(ranker.rank(cells)) : -1;
+            if (code == 0) throw new IllegalStateException("incomplete table for " + rows + "x" + cols);
+        }
+
+        boolean goal() {
+            for (int i = 0; i < n - 1; i++) if (tiles[i] != i + 1) return false;
+            return true;
+        }
+
+        /** Apply one optimal move; returns the tile slid. */
+        int step() {
+            int want = (code + 13) % 15 + 1;          // (d - 1) mod 15, plus one
+            int b = cells[0];
+            for (int j = 0, m = neighbours(b, nbrs, rows, cols); j < m; j++) {
+                int nb = nbrs[j], t = tiles[nb];
+                tiles[b] = t; tiles[nb] = 0; cells[t] = b; cells[0] = nb;
+                int c = code(ranker.rank(cells));
+                if (c == want) { code = c; return t; }
+                tiles[nb] = t; tiles[b] = 0; cells[t] = nb; cells[0] = b;
+            }
+            throw new IllegalStateException("corrupt table for " + rows + "x" + cols);
+        }
+    }
+
+    private static int neighbours(int cell, int[] out, int rows, int cols) {
+        int r = cell / cols, c = cell % cols, m = 0;
+        if (r > 0) out[m++] = cell - cols;
+        if (r < rows - 1) out[m++] = cell + cols;
+        if (c > 0) out[m++] = cell - 1;
+        if (c < cols - 1) out[m++] = cell + 1;
+        return m;
+    }
+
+    /** Build the table for a shape into dir; an existing table is kept. Returns its path. */
+    public static Path build(int rows, int cols, Path dir, Consumer<String> log) throws IOException {
+        int n = rows * cols, k = n - 2;
+        if (rows < 2 || cols < 2 || n > MAX_CELLS) throw new IllegalArgumentException("need 2x2 .. " + MAX_CELLS + " cells");
+        Files.createDirectories(dir);
+        Path out = file(dir, rows, cols);
+        if (Files.isRegularFile(out) && Files.size(out) == bytes(n)) return out;
+        Path tmp = dir.resolve(out.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+
+        PermutationRank ranker = new PermutationRank(n, k);
+        long states = ranker.size();
+        long[] cur = new long[(int) ((states + 63) >>> 6)], next = new long[cur.length];
+        int[] cells = new int[n], tiles = new int[n], nbrs = new int[4];
+        // sequence parity + blank parity is invariant; the goal has n-1 inversions and the blank home
+        int parity = (n - 1) & 1;
+
+        try (MappedBytes t = MappedBytes.openReadWrite(tmp, bytes(n))) {
+            cells[0] = n - 1;
+            for (int i = 1; i < k; i++) cells[i] = i - 1;
+            long goal = ranker.rank(cells);
+            setCode(t, goal, 1);
+            cur[(int) (goal >>> 6)] |= 1L << goal;
+
+            for (int level = 0; ; level++) {
+                long t0 = System.nanoTime(), added = 0;
+                int nextCode = (level + 1) % 15 + 1;
+                for (int w = 0; w < cur.length; w++) {
+                    for (long bits = cur[w]; bits != 0; bits &= bits - 1) {
+                        long idx = ((long) w << 6) + Long.numberOfTrailingZeros(bits);
+                        decode(ranker, idx, cells, tiles, rows, cols, parity);
+                        int b = cells[0];
+                        for (int j = 0, m = neighbours(b, nbrs, rows, cols); j < m; j++) {
+                            int nb = nbrs[j], tile = tiles[nb];
+                            cells[0] = nb;
+                            if (tile < k) cells[tile] = b;
+                            long c = ranker.rank(cells);
+                            cells[0] = b;
+                            if (tile < k) cells[tile] = nb;
+                            if (code(t, c) != 0) continue;
+                            setCode(t, c, nextCode);
+                            next[(int) (c >>> 6)] |= 1L << c;
+                            added++;
+                        }
+                    }
+                }
+                log.accept(String.format("%dx%d level %d: +%d states (%.1f s)", rows, cols, level + 1, added,
+                        (System.nanoTime() - t0) / 1e9));
+                if (added == 0) break;
+                long[] x = cur; cur = next; next = x;
+                Arrays.fill(next, 0L);
+            }
+            t.force();
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING);
+        return out;
+    }
+
+    /** Fill cells[0..n) (tile -> cell) and tiles (cell -> tile) for a state index. */
+    private static void decode(PermutationRank ranker, long idx, int[] cells, int[] tiles, int rows, int cols, int parity) {
+        int n = rows * cols, k = n - 2;
+        int digits = ranker.unrank(idx, cells);
+        long used = 0;
+        for (int i = 0; i < k; i++) used |= 1L << cells[i];
+        long free = ~used & ((1L << n) - 1);
+        int f1 = Long.numberOfTrailingZeros(free), f2 = Long.numberOfTrailingZeros(free & (free - 1));
+        int b = cells[0];
+        int blankParity = (rows - 1 - b / cols) + (cols - 1 - b % cols);
+        // placing tile n-2 on f2 adds one inversion; pick the order that keeps the board solvable
+        boolean swap = ((digits + blankParity) & 1) != parity;
+        cells[k] = swap ? f2 : f1;
+        cells[k + 1] = swap ? f1 : f2;
+        for (int t = 0; t < n; t++) tiles[cells[t]] = t;
+    }
+
+    private static int code(MappedBytes t, long idx) { return (t.get(idx >>> 1) >>> ((idx & 1) << 2)) & 0xF; }
+
+    private static void setCode(MappedBytes t, long idx, int code) {
+        long at = idx >>> 1;
+        int shift = (int) (idx & 1) << 2;
+        t.put(at, (byte) ((t.get(at) & ~(0xF << shift)) | (code << shift)));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: java puzzles.sliding.StateSpaceTable rows cols [dir]");
+            return;
+        }
+        int rows = Integer.parseInt(args[0]), cols = Integer.parseInt(args[1]);
+        Path dir = args.length > 2 ? java.nio.file.Paths.get(args[2]) : PatternDatabases.directory();
+        System.out.println("wrote " + build(rows, cols, dir, System.out::println));
+    }
+}
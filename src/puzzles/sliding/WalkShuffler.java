@@ -0,0 +1,95 @@
+/**
+ * Project: Game Hub
+ * File: WalkShuffler.java
+ * Purpose: In-place no-backtrack random walk over primitive arrays.
+ */
+package puzzles.sliding;
+
+import java.util.SplittableRandom;
+
+/**
+ * Each step slides a random tile next to the blank, never the one that just
+ * moved, so a walk of w steps does not waste moves undoing itself. The walk
+ * runs on tiles[cell]/pos[tile] arrays with per-shape neighbour tables and
+ * keeps the Manhattan distance up to date, so a step allocates nothing.
+ * With a minimum Manhattan distance the walk continues past the requested
+ * steps until the board is at least that far from the goal.
+ * Not thread-safe: use one shuffler per thread.
+ */
+public final class WalkShuffler implements Shuffler {
+    private final SplittableRandom rng;
+    private final int minManhattan;
+
+    // per-shape caches
+    private int rows = -1, cols = -1;
+    private int[] deg, nbr;              // nbr[cell*4 .. cell*4+deg-1]
+    private int[] cellRow, cellCol;
+    private int[] tiles, pos;            // scratch for shuffle()
+
+    public WalkShuffler(long seed) { this(seed, 0); }
+
+    /** @param minManhattan at most {@link PuzzleGenerator#reference} for the shapes it is used on */
+    public WalkShuffler(long seed, int minManhattan) {
+        this.rng = new SplittableRandom(seed);
+        this.minManhattan = minManhattan;
+    }
+
+    @Override public SlidingState shuffle(SlidingState start, int steps) {
+        PackedBoard p = start.packed();
+        prepare(p.rows(), p.cols());
+        p.copyTo(tiles, pos);
+        walk(tiles, pos, p.rows(), p.cols(), steps);
+        return SlidingState.of(p.rows(), p.cols(), tiles);
+    }
+
+    /**
+     * Walk a board in place.
+     * @return the board's Manhattan distance afterwards
+     */
+    public int walk(int[] tiles, int[] pos, int rows, int cols, long steps) {
+        prepare(rows, cols);
+        if (minManhattan > PuzzleGenerator.reference(rows, cols))
+            throw new IllegalArgumentException("minimum Manhattan distance " + minManhattan + " is above a random board's");
+        int md = BoardScan.forShape(rows, cols).manhattan(tiles, pos[0]);
+        int blank = pos[0], prev = -1;
+        for (long i = 0; i < steps || md < minManhattan; i++) {
+            int k = blank << 2, d = deg[blank];
+            int nb;
+            if (prev < 0) nb = nbr[k + rng.nextInt(d)];
+            else {
+                // uniform over the neighbours other than prev: draw from d-1 and swap prev for the last
+                nb = nbr[k + rng.nextInt(d - 1)];
+                if (nb == prev) nb = nbr[k + d - 1];
+            }
+            int t = tiles[nb];
+            md += dist(t, blank) - dist(t, nb);
+            tiles[blank] = t; pos[t] = blank;
+            tiles[nb] = 0; pos[0] = nb;
+            prev = blank; blank = nb;
+        }
+        return md;
+    }
+
+    private int dist(int tile, int cell) {
+        int g = tile - 1;   // standard goal: tile t on cell t-1
+        return Math.abs(cellRow[cell] - cellRow[g]) + Math.abs(cellCol[cell] - cellCol[g]);
+    }
+
+    private void prepare(int r, int c) {
+        if (r == rows && c == cols) return;
+        rows = r; cols = c;
+        int n = r * c;
+        deg = new int[n]; nbr = new int[n * 4];
+        cellRow = new int[n]; cellCol = new int[n];
+        tiles = new int[n]; pos = new int[n];
+        for (int cell = 0; cell < n; cell++) {
+            int cr = cell / c, cc = cell % c, k = cell << 2, d = 0;
+            cellRow[cell] = cr; cellCol[cell] = cc;
+            if (cr > 0)     nbr[k + d++] = cell - c;
+            if (cr < r - 1) nbr[k + d++] = cell + c;
+            if (cc > 0)     nbr[k + d++] = cell - 1;
+            if (cc < c - 1) nbr[k + d++] = cell + 1;
+            deg[cell] = d;
+        }
+    }
+}
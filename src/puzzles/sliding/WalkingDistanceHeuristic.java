@@ -0,0 +1,57 @@
+/**
+ * Project: Game Hub
+ * File: WalkingDistanceHeuristic.java
+ * Purpose: Walking distance (vertical + horizontal), maxed with Manhattan + linear conflict.
+ */
+package puzzles.sliding;
+
+/**
+ * Keeps one key per axis and moves it with the sliding tile, so a move costs
+ * a shift-and-add plus one table probe. Boards with a side above
+ * {@link WalkingDistanceTable#MAX_SIDE} get plain Manhattan + linear conflict.
+ */
+public final class WalkingDistanceHeuristic implements Heuristic {
+    private final WalkingDistanceTable vt, ht;
+    private final int[] cellRow, cellCol, goalRow, goalCol;
+    private final ManhattanHeuristic md;
+    private long vKey, hKey;
+    private int wd;
+
+    public WalkingDistanceHeuristic(int rows, int cols) {
+        vt = WalkingDistanceTable.forShape(rows, cols);
+        ht = WalkingDistanceTable.forShape(cols, rows);    // columns are the rows of the transposed board
+        int n = rows * cols;
+        cellRow = new int[n]; cellCol = new int[n];
+        goalRow = new int[n]; goalCol = new int[n];
+        for (int i = 0; i < n; i++) { cellRow[i] = i / cols; cellCol[i] = i % cols; }
+        for (int t = 1; t < n; t++) { goalRow[t] = cellRow[t-1]; goalCol[t] = cellCol[t-1]; }
+        md = new ManhattanHeuristic(rows, cols);
+    }
+
+    /** Walking distance where the shape allows it, Manhattan + linear conflict elsewhere. */
+    public static Heuristic.Factory factory() {
+        return (rows, cols) -> rows <= WalkingDistanceTable.MAX_SIDE && cols <= WalkingDistanceTable.MAX_SIDE
+                ? new WalkingDistanceHeuristic(rows, cols) : new ManhattanHeuristic(rows, cols);
+    }
+
+    @Override public int reset(int[] tiles, int[] pos) {
+        vKey = vt.key(tiles, cellRow, goalRow);
+        hKey = ht.key(tiles, cellCol, goalCol);
+        wd = vt.distance(vKey) + ht.distance(hKey);
+        return Math.max(wd, md.reset(tiles, pos));
+    }
+
+    @Override public int moved(int[] tiles, int[] pos, int tile, int from, int to) {
+        int m = md.moved(tiles, pos, tile, from, to);
+        int fr = cellRow[from], tr = cellRow[to];
+        if (fr != tr) {
+            int g = goalRow[tile];
+            vKey = vt.withBlank(vKey + (1L << vt.shift(tr, g)) - (1L << vt.shift(fr, g)), fr);
+        } else {
+            int fc = cellCol[from], tc = cellCol[to], g = goalCol[tile];
+            hKey = ht.withBlank(hKey + (1L << ht.shift(tc, g)) - (1L << ht.shift(fc, g)), fc);
+        }
+        wd = vt.distance(vKey) + ht.distance(hKey);
+        return Math.max(wd, m);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Project: Game Hub
+ * File: WalkingDistanceTable.java
+ * Purpose: Walking-distance BFS table for one axis of a board shape.
+ */
+package puzzles.sliding;
+
+import game.core.LongByteMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Walking distance (vertical axis): a state only records, for every row i,
+ * how many of its tiles belong to goal row j (m[i][j]), plus the blank's row.
+ * A move lifts any tile of a neighbouring row into the blank's row, so the
+ * BFS distance of a state from the goal counts the vertical moves every
+ * solution needs, including the ones tiles of the same row force on each
+ * other. The horizontal table is the vertical table of the transposed shape.
+ * Entries take 3 bits, so both sides are limited to 4 (4x4: 24,964 states).
+ */
+public final class WalkingDistanceTable {
+    public static final int MAX_SIDE = 4;
+
+    private static final ConcurrentHashMap<String, WalkingDistanceTable> CACHE =
+            new ConcurrentHashMap<String, WalkingDistanceTable>();
+
+    private final int rows, cols;       // rows of the axis, cells per row
+    private final LongByteMap dist;
+
+    private WalkingDistanceTable(int rows, int cols) {
+        this.rows = rows; this.cols = cols;
+        this.dist = build();
+    }
+
+    /** Vertical table for rows x cols boards, built on first use. */
+    public static WalkingDistanceTable forShape(int rows, int cols) {
+        if (rows > MAX_SIDE || cols > MAX_SIDE) throw new IllegalArgumentException("walking distance supports sides up to " + MAX_SIDE);
+        return CACHE.computeIfAbsent(rows + "x" + cols, k -> new WalkingDistanceTable(rows, cols));
+    }
+
+    public int states() { return dist.size(); }
+
+    /** Bit offset of m[row][group] in a key. */
+    public int shift(int row, int group) { return 3 * (row * rows + group); }
+
+    /** Key with the blank row replaced. */
+    public long withBlank(long key, int row) {
+        int s = 3 * rows * rows;
+        return (key & ~(3L << s)) | ((long) row << s);
+    }
+
+    /** Moves along this axis needed from the keyed state. */
+    public int distance(long key) { return dist.get(key); }
+
+    /** Key of a board; groups[t] is the goal row of tile t and rowOf[cell] the row of a cell on this axis. */
+    public long key(int[] tiles, int[] rowOf, int[] groups) {
+        long key = 0;
+        int blank = 0;
+        for (int cell = 0; cell < tiles.length; cell++) {
+            int t = tiles[cell];
+            if (t == 0) blank = rowOf[cell];
+            else key += 1L << shift(rowOf[cell], groups[t]);
+        }
+        return withBlank(key, blank);
+    }
+
+    private LongByteMap build() {
+        LongByteMap d = new LongByteMap(64L << 20);
+        long goal = 0;
+        for (int i = 0; i < rows; i++) goal += (long) (i == rows - 1 ? cols - 1 : cols) << shift(i, i);
+        goal = withBlank(goal, rows - 1);
+        d.put(goal, (byte) 0);
+
+        long[] front = { goal };
+        int len = 1;
+        for (int depth = 0; len > 0; depth++) {
+            long[] next = new long[Math.max(16, len * 4)];
+            int nLen = 0;
+            for (int f = 0; f < len; f++) {
+                long key = front[f];
+                int b = (int) (key >>> (3 * rows * rows)) & 3;
+                for (int nb = b - 1; nb <= b + 1; nb += 2) {
+                    if (nb < 0 || nb >= rows) continue;
+                    for (int g = 0; g < rows; g++) {
+                        if (((key >>> shift(nb, g)) & 7) == 0) continue;
+                        // a tile of group g moves from row nb into the blank's row b
+                        long child = withBlank(key - (1L << shift(nb, g)) + (1L << shift(b, g)), nb);
+                        if (d.put(child, (byte) (depth + 1)) != 1) continue;
+                        if (nLen == next.length) next = java.util.Arrays.copyOf(next, nLen * 2);
+                        next[nLen++] = child;
+                    }
+                }
+            }
+            front = next; len = nLen;
+        }
+        return d;
+    }
+}